@@ -0,0 +1,120 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.timing.RequestTimingFilter;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Copies a downstream response into memory while passing it on to the client, so it can be
+ * replayed later (ResponseCacheFilter) or to other waiting clients (RequestCoalescingFilter).
+ *
+ * Responses with Set-Cookie, a status the caller does not accept, a body over maxBodyBytes or a
+ * streamed body are passed through and reported through onSkipped instead.
+ */
+class CapturingResponse extends ServerHttpResponseDecorator {
+
+    // Hop-by-hop or per-response headers that must not be replayed
+    private static final List<String> UNREPLAYABLE_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.DATE, HttpHeaders.SET_COOKIE, ResponseCacheFilter.CACHE_STATUS_HEADER,
+            RequestTimingFilter.SERVER_TIMING_HEADER);
+
+    private final int maxBodyBytes;
+    private final Predicate<HttpStatusCode> acceptStatus;
+    private final Consumer<Captured> onCaptured;
+    private final Runnable onSkipped;
+
+    CapturingResponse(ServerHttpResponse delegate, int maxBodyBytes, Predicate<HttpStatusCode> acceptStatus,
+                      Consumer<Captured> onCaptured, Runnable onSkipped) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.acceptStatus = acceptStatus;
+        this.onCaptured = onCaptured;
+        this.onSkipped = onSkipped;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        HttpStatusCode status = getStatusCode();
+        HttpHeaders headers = getHeaders();
+        if (status == null || !acceptStatus.test(status) || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getContentLength() > maxBodyBytes) {
+            onSkipped.run();
+            return super.writeWith(body);
+        }
+
+        // Copy chunks as they stream past rather than joining the body, so a response whose
+        // Content-Length was unknown never holds more than maxBodyBytes in memory here
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        AtomicBoolean overflowed = new AtomicBoolean();
+        Flux<? extends DataBuffer> copying = Flux.from(body)
+                .doOnNext(buffer -> {
+                    if (overflowed.get()) {
+                        return;
+                    }
+                    int length = buffer.readableByteCount();
+                    if (copy.size() + length > maxBodyBytes) {
+                        overflowed.set(true);
+                        copy.reset();
+                        onSkipped.run();
+                        return;
+                    }
+                    byte[] bytes = new byte[length];
+                    int position = buffer.readPosition();
+                    buffer.read(bytes);
+                    buffer.readPosition(position);
+                    copy.writeBytes(bytes);
+                })
+                .doOnComplete(() -> {
+                    if (!overflowed.get()) {
+                        onCaptured.accept(new Captured(status, replayableHeaders(headers), copy.toByteArray()));
+                    }
+                });
+        return super.writeWith(copying);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        onSkipped.run();
+        return super.writeAndFlushWith(body);
+    }
+
+    /**
+     * Write a captured response to another client
+     */
+    static Mono<Void> replay(ServerHttpResponse response, Captured captured) {
+        response.setStatusCode(captured.status());
+        response.getHeaders().putAll(captured.headers());
+        response.getHeaders().setContentLength(captured.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(captured.body())));
+    }
+
+    private static HttpHeaders replayableHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            boolean excluded = UNREPLAYABLE_HEADERS.stream().anyMatch(name -> name.equalsIgnoreCase(header.getKey()));
+            if (!excluded) {
+                copy.put(header.getKey(), List.copyOf(header.getValue()));
+            }
+        }
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    /**
+     * Status, end-to-end headers and body of a captured response
+     */
+    record Captured(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
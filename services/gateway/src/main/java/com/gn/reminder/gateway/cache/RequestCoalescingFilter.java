@@ -0,0 +1,147 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.cache.CapturingResponse.Captured;
+import com.gn.reminder.gateway.cache.RequestCoalescingProperties.CoalescedRoute;
+import com.gn.reminder.gateway.cache.RequestCoalescingProperties.Scope;
+import com.gn.reminder.gateway.security.HybridJwtValidator;
+import com.gn.reminder.gateway.security.JwtAuthenticationFilter;
+import com.gn.reminder.gateway.security.PathRuleMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight coalescing of identical GETs on the routes listed in gateway.coalescing.routes.
+ *
+ * The first request for a key (route, path+query, Accept and the caller's scope) goes downstream
+ * as the leader; identical requests arriving while it is in flight wait for its response and get
+ * a copy, so N concurrent callers cost USER-SERVICE one call. Waiters give up after max-wait and
+ * make their own call, as they do when the leader fails, is cancelled or its response cannot be
+ * shared (not 2xx, Set-Cookie, streamed or larger than max-body-bytes). An error such as a 503 or
+ * 429 is therefore never fanned out: each waiter goes on through the concurrency limiter and
+ * circuit breaker with its own call. Nothing is kept once the leader's response has been handed
+ * out; caching is ResponseCacheFilter's job.
+ *
+ * Metrics per route: gateway.coalescing.shared (waiters served a copy), gateway.coalescing.timeouts
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private final RequestCoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HybridJwtValidator.TokenInfo tokenInfo = exchange.getAttribute(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE);
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || route == null || tokenInfo == null
+                || !HttpMethod.GET.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        CoalescedRoute coalescedRoute = findRoute(route.getId(), request.getPath().value());
+        if (coalescedRoute == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(coalescedRoute.getScope(), tokenInfo.getUserId(), route.getId(), request);
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            return follow(exchange, chain, existing, route.getId());
+        }
+        return lead(exchange, chain, key, flight);
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, Flight flight) {
+        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), properties.getMaxBodyBytes(),
+                HttpStatusCode::is2xxSuccessful,
+                captured -> flight.complete(flights, key, captured),
+                () -> flight.complete(flights, key, null));
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> flight.complete(flights, key, null));
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight, String routeId) {
+        return flight.result.asMono()
+                .timeout(properties.getMaxWait())
+                .onErrorResume(TimeoutException.class, e -> {
+                    meterRegistry.counter("gateway.coalescing.timeouts", "route", routeId).increment();
+                    return Mono.empty();
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    meterRegistry.counter("gateway.coalescing.shared", "route", routeId).increment();
+                    return CapturingResponse.replay(exchange.getResponse(), shared.get());
+                });
+    }
+
+    private CoalescedRoute findRoute(String routeId, String path) {
+        for (CoalescedRoute coalescedRoute : properties.getRoutes()) {
+            if (routeId.equals(coalescedRoute.getRouteId())
+                    && PathRuleMatcher.matches(coalescedRoute.getPath(), path)) {
+                return coalescedRoute;
+            }
+        }
+        return null;
+    }
+
+    static String key(Scope scope, String userId, String routeId, ServerHttpRequest request) {
+        String caller = scope == Scope.USER ? "user:" + userId : "authenticated";
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return caller + '\n' + routeId + '\n' + request.getPath().value()
+                + (query == null ? "" : "?" + query) + '\n' + (accept == null ? "" : accept);
+    }
+
+    /**
+     * One leader call and the response its waiters receive; empty when they must call downstream themselves
+     */
+    private static final class Flight {
+
+        final Sinks.One<Captured> result = Sinks.one();
+
+        void complete(Map<String, Flight> flights, String key, Captured captured) {
+            // Later identical requests start a new flight rather than receive this response
+            flights.remove(key, this);
+            if (captured != null) {
+                result.tryEmitValue(captured);
+            } else {
+                result.tryEmitEmpty();
+            }
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return -44; // After the response cache (-45) so hits never wait; before concurrency limiting (-40) so waiters take no slot
+    }
+}
@@ -0,0 +1,47 @@
+package com.gn.reminder.gateway.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight coalescing of identical GETs (gateway.coalescing).
+ * Only routes listed here are coalesced; the scope decides which callers may share a response.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class RequestCoalescingProperties {
+
+    private boolean enabled = false;
+
+    // Longest a caller waits for a shared response before calling the downstream itself
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    // Larger responses are not shared; waiting callers then make their own call
+    private int maxBodyBytes = 64 * 1024;
+
+    private List<CoalescedRoute> routes = new ArrayList<>();
+
+    public enum Scope {
+        // Only requests of the same user share a response
+        USER,
+        // Any authenticated caller shares; for responses that do not depend on who asks
+        AUTHENTICATED
+    }
+
+    @Data
+    public static class CoalescedRoute {
+
+        // Gateway route id, e.g. user-service
+        private String routeId;
+
+        // Exact path (/api/v1/user) or prefix ending in /**
+        private String path;
+
+        private Scope scope = Scope.USER;
+    }
+}
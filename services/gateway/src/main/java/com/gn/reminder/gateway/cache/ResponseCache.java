@@ -0,0 +1,122 @@
+package com.gn.reminder.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-user store behind ResponseCacheFilter.
+ *
+ * Entries are keyed by user, route and path+query, and each expires after its route's TTL.
+ * Invalidation is O(1): every user hashes to one of a fixed set of generation counters, entries
+ * remember the generation they were filled under, and invalidateUser bumps the counter so all of
+ * the user's entries read as misses until they are refilled or evicted. A response fetched before
+ * an invalidation is never stored after it, because put checks the generation seen at fetch time.
+ * Users sharing a counter only cost each other an extra miss.
+ */
+@Component
+public class ResponseCache {
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<String, Entry> entries;
+    private final Ticker ticker;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    public ResponseCache(ResponseCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    ResponseCache(ResponseCacheProperties properties, Ticker ticker) {
+        Duration staleIfError = properties.getStaleIfError();
+        this.ticker = ticker;
+        // Entries outlive their TTL by stale-if-error, during which only getStale returns them
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfter(Expiry.creating((String key, Entry entry) -> entry.response().ttl().plus(staleIfError)))
+                .ticker(ticker)
+                .build();
+    }
+
+    static String key(String userId, String routeId, String pathAndQuery) {
+        return userId + '\n' + routeId + '\n' + pathAndQuery;
+    }
+
+    /**
+     * Generation to pass to put for a response fetched from now on
+     */
+    public long generation(String userId) {
+        return generations.get(stripe(userId));
+    }
+
+    /**
+     * Response within its TTL, or null
+     */
+    public CachedResponse get(String userId, String key) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.response().generation() != generation(userId)
+                || ticker.read() - entry.storedAtNanos() >= entry.response().ttl().toNanos()) {
+            return null;
+        }
+        return entry.response();
+    }
+
+    /**
+     * Response within its TTL plus stale-if-error, or null; for when the downstream cannot be reached.
+     * Invalidated responses are never returned, however fresh.
+     */
+    public CachedResponse getStale(String userId, String key) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.response().generation() != generation(userId)) {
+            return null;
+        }
+        return entry.response();
+    }
+
+    /**
+     * Store a response unless the user was invalidated since it was fetched
+     */
+    public void put(String userId, String key, CachedResponse response) {
+        if (response.generation() == generation(userId)) {
+            entries.put(key, new Entry(response, ticker.read()));
+        }
+    }
+
+    public void invalidateUser(String userId) {
+        generations.incrementAndGet(stripe(userId));
+    }
+
+    /**
+     * Drop everything, e.g. after invalidation messages may have been missed
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private static int stripe(String userId) {
+        int h = userId.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private record Entry(CachedResponse response, long storedAtNanos) {
+    }
+
+    /**
+     * A captured response, the TTL of its route and the user's generation when it was fetched
+     */
+    public record CachedResponse(CapturingResponse.Captured response, Duration ttl, long generation) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.cache.ResponseCache.CachedResponse;
+import com.gn.reminder.gateway.cache.ResponseCacheProperties.CachedRoute;
+import com.gn.reminder.gateway.security.HybridJwtValidator;
+import com.gn.reminder.gateway.security.JwtAuthenticationFilter;
+import com.gn.reminder.gateway.security.PathRuleMatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Edge cache for authenticated GETs on the routes listed in gateway.response-cache.routes.
+ *
+ * A hit is answered from memory without contacting the downstream service; a miss is forwarded
+ * and its 200 response stored for the route's TTL. Entries are keyed by the verified user id from
+ * the token (never the client's X-Auth-User-Id header), so one user can never see another's response.
+ * A POST/PUT/PATCH/DELETE on a cached route drops the caller's entries right away, and
+ * ResponseCacheInvalidationListener drops them when user-service reports a profile change.
+ * Downstream Cache-Control headers are forwarded to the client unchanged; they do not govern this
+ * gateway-private cache.
+ *
+ * Responses carry X-Cache: HIT, MISS or STALE (see replayStale).
+ * Metrics: gateway.response_cache.hits, .misses and .stale per route, gateway.response_cache.size
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Set on exchanges answered with a stale response, which must not be stored again as fresh
+    private static final String STALE_ATTRIBUTE = ResponseCacheFilter.class.getName() + ".stale";
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCache responseCache,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.responseCache = responseCache;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.response_cache.size", responseCache, ResponseCache::size)
+                .description("Cached responses held by the gateway")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HybridJwtValidator.TokenInfo tokenInfo = exchange.getAttribute(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE);
+        if (!properties.isEnabled() || route == null || tokenInfo == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        CachedRoute cachedRoute = findRoute(route.getId(), request.getPath().value());
+        if (cachedRoute == null) {
+            return chain.filter(exchange);
+        }
+
+        String userId = tokenInfo.getUserId();
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            // Invalidate before and after the write: no response fetched around it is served afterwards
+            responseCache.invalidateUser(userId);
+            return chain.filter(exchange).doFinally(signal -> responseCache.invalidateUser(userId));
+        }
+
+        String key = ResponseCache.key(userId, route.getId(), pathAndQuery(request));
+        CachedResponse cached = responseCache.get(userId, key);
+        if (cached != null) {
+            meterRegistry.counter("gateway.response_cache.hits", "route", route.getId()).increment();
+            log.debug("Response cache hit for route: {} key: {}", route.getId(), key);
+            return writeCached(exchange.getResponse(), cached, "HIT");
+        }
+
+        meterRegistry.counter("gateway.response_cache.misses", "route", route.getId()).increment();
+        long generation = responseCache.generation(userId);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        Duration ttl = cachedRoute.getTtl();
+        CapturingResponse capturing = new CapturingResponse(response, properties.getMaxBodyBytes(),
+                status -> status.value() == HttpStatus.OK.value(),
+                captured -> {
+                    if (exchange.getAttribute(STALE_ATTRIBUTE) == null) {
+                        responseCache.put(userId, key, new CachedResponse(captured, ttl, generation));
+                    }
+                },
+                () -> { });
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    /**
+     * Answer a GET on a cached route with the caller's last response, even past its TTL (up to
+     * stale-if-error), for when the downstream is known to be failing. Empty if there is none.
+     */
+    public Optional<Mono<Void>> replayStale(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HybridJwtValidator.TokenInfo tokenInfo = exchange.getAttribute(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE);
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || route == null || tokenInfo == null
+                || !HttpMethod.GET.equals(request.getMethod())
+                || findRoute(route.getId(), request.getPath().value()) == null) {
+            return Optional.empty();
+        }
+
+        String key = ResponseCache.key(tokenInfo.getUserId(), route.getId(), pathAndQuery(request));
+        CachedResponse stale = responseCache.getStale(tokenInfo.getUserId(), key);
+        if (stale == null) {
+            return Optional.empty();
+        }
+        meterRegistry.counter("gateway.response_cache.stale", "route", route.getId()).increment();
+        exchange.getAttributes().put(STALE_ATTRIBUTE, Boolean.TRUE);
+        return Optional.of(writeCached(exchange.getResponse(), stale, "STALE"));
+    }
+
+    private static String pathAndQuery(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getPath().value() : request.getPath().value() + '?' + query;
+    }
+
+    private CachedRoute findRoute(String routeId, String path) {
+        for (CachedRoute cachedRoute : properties.getRoutes()) {
+            if (routeId.equals(cachedRoute.getRouteId()) && PathRuleMatcher.matches(cachedRoute.getPath(), path)) {
+                return cachedRoute;
+            }
+        }
+        return null;
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, String cacheStatus) {
+        response.getHeaders().set(CACHE_STATUS_HEADER, cacheStatus);
+        return CapturingResponse.replay(response, cached.response());
+    }
+
+    @Override
+    public int getOrder() {
+        return -45; // After rate limiting (-50) so hits still count; before concurrency limiting (-40) so they take no downstream slot
+    }
+}
@@ -0,0 +1,62 @@
+package com.gn.reminder.gateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+/**
+ * Drops a user's cached responses when user-service publishes their id on the profile-change channel.
+ *
+ * Messages published while the subscription is down are lost, so every subscription error clears
+ * the whole cache before reconnecting: entries filled since then are fresh, and TTLs bound the rest.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.response-cache.invalidation.enabled", havingValue = "true")
+public class ResponseCacheInvalidationListener {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ResponseCache responseCache;
+    private final String channel;
+    private final Counter invalidations;
+    private Disposable subscription;
+
+    public ResponseCacheInvalidationListener(ReactiveStringRedisTemplate redisTemplate, ResponseCache responseCache,
+                                             ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.responseCache = responseCache;
+        this.channel = properties.getInvalidation().getChannel();
+        this.invalidations = meterRegistry.counter("gateway.response_cache.invalidations");
+    }
+
+    @PostConstruct
+    public void start() {
+        subscription = redisTemplate.listenToChannel(channel)
+                .doOnError(e -> {
+                    log.warn("Response cache invalidation channel {} failed, clearing cache: {}", channel, e.getMessage());
+                    responseCache.invalidateAll();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> {
+                    responseCache.invalidateUser(message.getMessage());
+                    invalidations.increment();
+                    log.debug("Invalidated cached responses for userId: {}", message.getMessage());
+                });
+        log.info("Listening for response cache invalidations on channel: {}", channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.gn.reminder.gateway.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Edge response cache for authenticated GETs (gateway.response-cache).
+ * Only routes listed here are cached, each with its own TTL; entries are private to the calling user.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = false;
+
+    // Cached responses across all users and routes; least recently used go first
+    private long maxEntries = 10_000;
+
+    // Larger responses are passed through uncached
+    private int maxBodyBytes = 64 * 1024;
+
+    // How long past its TTL a response may still be served when the route's circuit breaker is open
+    private Duration staleIfError = Duration.ZERO;
+
+    private Invalidation invalidation = new Invalidation();
+
+    private List<CachedRoute> routes = new ArrayList<>();
+
+    @Data
+    public static class Invalidation {
+
+        // Drop a user's entries when user-service publishes a profile change
+        private boolean enabled = false;
+
+        private String channel = "user:profile-changed";
+    }
+
+    @Data
+    public static class CachedRoute {
+
+        // Gateway route id, e.g. user-service
+        private String routeId;
+
+        // Exact path (/api/v1/user) or prefix ending in /**
+        private String path;
+
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,108 @@
+package com.gn.reminder.gateway.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Adaptive concurrency limiting per downstream route.
+ *
+ * Each route gets an in-flight limit that follows the downstream's latency (see GradientLimit):
+ * when USER-SERVICE slows down, its limit shrinks and excess requests get 503 at once instead of
+ * piling up behind the slow ones. Rate limits cap how often a client may call; this caps how much
+ * work the gateway keeps outstanding against a service.
+ *
+ * Metrics per route: gateway.concurrency.limit, gateway.concurrency.in_flight, gateway.concurrency.rejected
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    // Set by later filters that answer without calling the downstream (open breaker, stale replay),
+    // so their responses are neither a failure nor a latency sample
+    public static final String NOT_FORWARDED_ATTRIBUTE = AdaptiveConcurrencyFilter.class.getName() + ".notForwarded";
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, this::createLimiter);
+        int inFlight = limiter.tryAcquire();
+        if (inFlight < 0) {
+            meterRegistry.counter("gateway.concurrency.rejected", "route", routeId).increment();
+            log.debug("Concurrency limit {} reached for route: {}", limiter.getLimit(), routeId);
+            return handleOverloaded(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL || exchange.getAttribute(NOT_FORWARDED_ATTRIBUTE) != null) {
+                        limiter.releaseIgnored();
+                        return;
+                    }
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean succeeded = signal == SignalType.ON_COMPLETE
+                            && (status == null || !status.is5xxServerError());
+                    limiter.release(System.nanoTime() - start, inFlight, succeeded);
+                });
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .description("Current adaptive in-flight limit")
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .description("Requests outstanding against the downstream service")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Shed the request with 503; Retry-After hints clients to back off briefly
+     */
+    private Mono<Void> handleOverloaded(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().add("Content-Type", "application/json");
+        response.getHeaders().add("Retry-After", "1");
+
+        String errorBody = "{\"error\": \"Service overloaded\", \"message\": \"Too many concurrent requests, retry shortly\", \"status\": 503}";
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(errorBody.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return -40; // After rate limiting (-50) so only admitted requests count towards the limit
+    }
+}
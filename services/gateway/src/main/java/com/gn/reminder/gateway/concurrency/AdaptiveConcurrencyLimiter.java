@@ -0,0 +1,54 @@
+package com.gn.reminder.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-flight request counter for one route, bounded by a GradientLimit
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.limit = new GradientLimit(properties);
+    }
+
+    /**
+     * Reserve a slot; returns the in-flight count including this request, or -1 when at the limit
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Free a slot and feed the request's latency into the limit
+     */
+    public void release(long rttNanos, int inFlightAtStart, boolean succeeded) {
+        inFlight.decrementAndGet();
+        limit.onSample(rttNanos, inFlightAtStart, succeeded, System.nanoTime());
+    }
+
+    /**
+     * Free a slot without a latency sample (the client went away, or the downstream was never called)
+     */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
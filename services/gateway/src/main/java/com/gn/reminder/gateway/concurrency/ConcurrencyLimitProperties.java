@@ -0,0 +1,37 @@
+package com.gn.reminder.gateway.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive concurrency limit settings (gateway.concurrency); each route gets its own limit
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 5;
+
+    private int maxLimit = 500;
+
+    // Limit growth per sample while latency stays at the baseline
+    private int queueSize = 4;
+
+    // Latency increase over the baseline tolerated before the limit shrinks
+    private double rttTolerance = 1.5;
+
+    // Weight of each new limit estimate
+    private double smoothing = 0.2;
+
+    // Limit multiplier on a 5xx response or error
+    private double backoffRatio = 0.9;
+
+    // Samples averaged into the latency baseline
+    private int longWindow = 600;
+}
@@ -0,0 +1,84 @@
+package com.gn.reminder.gateway.concurrency;
+
+/**
+ * Gradient concurrency limit estimator (after Netflix concurrency-limits' Gradient2).
+ *
+ * Compares a long-term latency average (the downstream's unloaded baseline) with each new sample.
+ * While latency stays within tolerance of the baseline the limit grows by queueSize per sample;
+ * once requests start queueing downstream, latency rises and the limit shrinks in proportion.
+ * Failed requests (5xx, timeouts) back the limit off multiplicatively, at most once per round trip:
+ * a failure from a request that was already in flight at the last backoff belongs to the same
+ * downstream hiccup, so a burst of concurrent 5xx costs one backoffRatio, not one per response.
+ */
+final class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double longRttAlpha;
+
+    private double estimatedLimit;
+    private double longRtt;
+    private long lastBackoffNanos = Long.MIN_VALUE;
+    private volatile int limit;
+
+    GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.queueSize = properties.getQueueSize();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.longRttAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Feed one completed request
+     *
+     * @param rttNanos  time the downstream took to answer
+     * @param inFlight  requests in flight when this one started
+     * @param succeeded false for 5xx responses and errors
+     * @param nowNanos  System.nanoTime() when it completed
+     */
+    synchronized void onSample(long rttNanos, int inFlight, boolean succeeded, long nowNanos) {
+        if (!succeeded) {
+            if (nowNanos - rttNanos < lastBackoffNanos) {
+                return;
+            }
+            lastBackoffNanos = nowNanos;
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        double shortRtt = rttNanos;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += longRttAlpha * (shortRtt - longRtt);
+        }
+        // Latency dropped well below the baseline (e.g. the downstream recovered); converge faster
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Little traffic says nothing about the limit; don't let it drift upwards
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
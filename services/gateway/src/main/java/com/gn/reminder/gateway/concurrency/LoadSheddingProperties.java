@@ -0,0 +1,66 @@
+package com.gn.reminder.gateway.concurrency;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Overload detection and priority load shedding (gateway.load-shedding)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public class LoadSheddingProperties {
+
+    private boolean enabled = false;
+
+    // How often event-loop lag and process CPU are sampled
+    private Duration sampleInterval = Duration.ofMillis(100);
+
+    // Overloaded when the smoothed task queueing delay of the busiest event loop exceeds this...
+    private Duration eventLoopLagThreshold = Duration.ofMillis(50);
+
+    // ...or the smoothed process CPU load (0-1) exceeds this
+    private double cpuThreshold = 0.9;
+
+    // Weight of each new sample in the smoothed values
+    private double smoothing = 0.3;
+
+    // While overloaded, one more priority is shed per interval; once healthy, one is readmitted per recovery interval
+    private Duration escalationInterval = Duration.ofSeconds(1);
+
+    private Duration recoveryInterval = Duration.ofSeconds(5);
+
+    private Priority defaultPriority = Priority.NORMAL;
+
+    // First matching rule gives a request its priority; requests matching none get defaultPriority
+    private List<PriorityRule> priorities = new ArrayList<>();
+
+    /**
+     * Shed lowest first; CRITICAL is never shed
+     */
+    public enum Priority {
+        LOW, NORMAL, HIGH, CRITICAL
+    }
+
+    @Data
+    public static class PriorityRule {
+
+        // Gateway route id; null matches every route
+        private String routeId;
+
+        // Exact path or prefix ending in /**; null matches every path
+        private String path;
+
+        // HTTP methods; empty matches every method
+        private List<String> methods = new ArrayList<>();
+
+        // true = verified token required, false = anonymous only, null = either
+        private Boolean authenticated;
+
+        private Priority priority = Priority.NORMAL;
+    }
+}
@@ -0,0 +1,144 @@
+package com.gn.reminder.gateway.concurrency;
+
+import com.gn.reminder.gateway.concurrency.LoadSheddingProperties.Priority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Samples the server's Netty event loops and the process CPU load off the event loops and keeps the ShedLevel.
+ *
+ * Event-loop lag is the time a probe task waits in each loop's queue before it runs; the busiest loop counts,
+ * and a probe that has not run yet counts with its age, so a stuck loop shows up at once. Process CPU comes
+ * from the JVM's OperatingSystemMXBean when it reports it.
+ *
+ * Metrics: gateway.overload.event_loop_lag (ms), gateway.overload.cpu, gateway.overload.shed_level
+ */
+@Slf4j
+@Component
+public class OverloadDetector {
+
+    private final LoadSheddingProperties properties;
+    private final ObjectProvider<ReactorResourceFactory> resourceFactory;
+    private final ShedLevel shedLevel;
+    private final List<Probe> probes = new ArrayList<>();
+    private Disposable sampler;
+
+    public OverloadDetector(LoadSheddingProperties properties,
+                            ObjectProvider<ReactorResourceFactory> resourceFactory,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.resourceFactory = resourceFactory;
+        this.shedLevel = new ShedLevel(properties);
+        Gauge.builder("gateway.overload.event_loop_lag", shedLevel, ShedLevel::lagMillis)
+                .description("Smoothed task queueing delay of the busiest event loop, in ms")
+                .register(meterRegistry);
+        Gauge.builder("gateway.overload.cpu", shedLevel, ShedLevel::cpuLoad)
+                .description("Smoothed process CPU load (0-1)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.overload.shed_level", shedLevel, ShedLevel::level)
+                .description("Number of priorities being shed (0 = none)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ReactorResourceFactory factory = resourceFactory.getIfAvailable();
+        LoopResources loops = factory != null ? factory.getLoopResources() : HttpResources.get();
+        EventLoopGroup group = loops.onServer(LoopResources.DEFAULT_NATIVE);
+        group.forEach(executor -> probes.add(new Probe(executor)));
+
+        sampler = Flux.interval(properties.getSampleInterval(), properties.getSampleInterval())
+                .onBackpressureDrop()
+                .subscribe(tick -> sample());
+        log.info("Overload detection started on {} event loops", probes.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sampler != null) {
+            sampler.dispose();
+        }
+    }
+
+    public boolean isShedding() {
+        return shedLevel.level() > 0;
+    }
+
+    public boolean shouldShed(Priority priority) {
+        return shedLevel.shouldShed(priority);
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        long worstLag = 0;
+        for (Probe probe : probes) {
+            worstLag = Math.max(worstLag, probe.sample(now));
+        }
+        int before = shedLevel.level();
+        int after = shedLevel.update(worstLag, processCpuLoad(), now);
+        if (after != before) {
+            log.warn("Load shedding level {} -> {} (event-loop lag {} ms, CPU {})",
+                    before, after, String.format("%.1f", shedLevel.lagMillis()), String.format("%.2f", shedLevel.cpuLoad()));
+        }
+    }
+
+    private static double processCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            return sunOs.getProcessCpuLoad();
+        }
+        return -1;
+    }
+
+    /**
+     * One outstanding queueing-delay probe per event loop
+     */
+    private static final class Probe {
+        private final EventExecutor executor;
+        // Submit time of the probe still waiting to run, 0 when none is outstanding
+        private final AtomicLong pendingSince = new AtomicLong();
+        private volatile long lastLagNanos;
+
+        Probe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        long sample(long now) {
+            long pending = pendingSince.get();
+            if (pending != 0) {
+                return Math.max(lastLagNanos, now - pending);
+            }
+            pendingSince.set(now);
+            try {
+                executor.execute(() -> {
+                    lastLagNanos = System.nanoTime() - now;
+                    pendingSince.set(0);
+                });
+            } catch (RejectedExecutionException e) {
+                pendingSince.set(0); // Loop shutting down
+            }
+            return lastLagNanos;
+        }
+    }
+}
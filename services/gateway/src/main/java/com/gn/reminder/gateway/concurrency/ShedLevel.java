@@ -0,0 +1,80 @@
+package com.gn.reminder.gateway.concurrency;
+
+import com.gn.reminder.gateway.concurrency.LoadSheddingProperties.Priority;
+
+/**
+ * How many priorities are being shed, driven by smoothed event-loop lag and CPU samples.
+ *
+ * Level 0 admits everything; level n sheds the n lowest priorities (CRITICAL never). While overloaded
+ * the level rises by one per escalation interval, so shedding LOW traffic gets a chance to relieve the
+ * gateway before NORMAL traffic goes too; after a recovery interval without overload it falls by one.
+ * Updated by one sampling thread, read by every request.
+ */
+final class ShedLevel {
+
+    private static final int MAX_LEVEL = Priority.CRITICAL.ordinal();
+
+    private final LoadSheddingProperties properties;
+
+    private double lagNanos = -1;
+    private double cpuLoad = -1;
+    private long lastChangeNanos;
+    private long lastOverloadNanos;
+    private boolean changed;
+    private volatile int level;
+
+    ShedLevel(LoadSheddingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param lagSampleNanos queueing delay of the busiest event loop
+     * @param cpuSample process CPU load 0-1, negative when unavailable
+     */
+    int update(long lagSampleNanos, double cpuSample, long nowNanos) {
+        lagNanos = smooth(lagNanos, lagSampleNanos);
+        if (cpuSample >= 0) {
+            cpuLoad = smooth(cpuLoad, cpuSample);
+        }
+
+        boolean overloaded = lagNanos > properties.getEventLoopLagThreshold().toNanos()
+                || cpuLoad > properties.getCpuThreshold();
+        int current = level;
+        if (overloaded) {
+            lastOverloadNanos = nowNanos;
+            if (current < MAX_LEVEL && (!changed || nowNanos - lastChangeNanos >= properties.getEscalationInterval().toNanos())) {
+                setLevel(current + 1, nowNanos);
+            }
+        } else if (current > 0
+                && nowNanos - Math.max(lastChangeNanos, lastOverloadNanos) >= properties.getRecoveryInterval().toNanos()) {
+            setLevel(current - 1, nowNanos);
+        }
+        return level;
+    }
+
+    boolean shouldShed(Priority priority) {
+        return priority.ordinal() < level;
+    }
+
+    int level() {
+        return level;
+    }
+
+    double lagMillis() {
+        return Math.max(lagNanos, 0) / 1_000_000.0;
+    }
+
+    double cpuLoad() {
+        return Math.max(cpuLoad, 0);
+    }
+
+    private void setLevel(int newLevel, long nowNanos) {
+        level = newLevel;
+        lastChangeNanos = nowNanos;
+        changed = true;
+    }
+
+    private double smooth(double current, double sample) {
+        return current < 0 ? sample : current + properties.getSmoothing() * (sample - current);
+    }
+}
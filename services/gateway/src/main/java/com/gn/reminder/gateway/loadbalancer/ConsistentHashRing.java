@@ -0,0 +1,100 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import com.gn.reminder.gateway.ratelimit.KeyHash;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * Consistent-hash ring over a service's instances with virtual nodes.
+ *
+ * Every instance owns virtualNodes points on a 64-bit ring, placed by hashing host:port, so a key
+ * keeps its instance as long as that instance stays registered: adding or removing one instance
+ * only moves the keys in the arcs it gains or loses. The ring is immutable and rebuilt by the
+ * balancer when the instance list changes.
+ */
+final class ConsistentHashRing {
+
+    private final List<ServiceInstance> members;
+    private final Set<String> memberKeys;
+    private final long[] points;
+    private final int[] owners;
+
+    ConsistentHashRing(List<ServiceInstance> instances, int virtualNodes) {
+        this.members = List.copyOf(instances);
+        this.memberKeys = keys(instances);
+
+        int size = members.size() * virtualNodes;
+        long[] hashes = new long[size];
+        Integer[] order = new Integer[size];
+        for (int m = 0; m < members.size(); m++) {
+            String memberKey = key(members.get(m));
+            for (int v = 0; v < virtualNodes; v++) {
+                int index = m * virtualNodes + v;
+                hashes[index] = KeyHash.hash(memberKey + '#' + v);
+                order[index] = index;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    /**
+     * True when the ring was built from exactly these instances
+     */
+    boolean hasMembers(List<ServiceInstance> instances) {
+        if (instances.size() != members.size()) {
+            return false;
+        }
+        for (ServiceInstance instance : instances) {
+            if (!memberKeys.contains(key(instance))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * First instance clockwise from the key's position that accepts the request; null if none does
+     */
+    ServiceInstance pick(String key, Predicate<ServiceInstance> accepts) {
+        if (points.length == 0) {
+            return null;
+        }
+        int start = Arrays.binarySearch(points, KeyHash.hash(key));
+        if (start < 0) {
+            start = -start - 1;
+        }
+        int lastOwner = -1;
+        for (int i = 0; i < points.length; i++) {
+            int owner = owners[(start + i) % points.length];
+            // Consecutive points of the same instance were just rejected
+            if (owner != lastOwner && accepts.test(members.get(owner))) {
+                return members.get(owner);
+            }
+            lastOwner = owner;
+        }
+        return null;
+    }
+
+    private static Set<String> keys(List<ServiceInstance> instances) {
+        Set<String> keys = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            keys.add(key(instance));
+        }
+        return keys;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,36 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global token bucket for hedges, in thousandths of a hedge.
+ *
+ * Every eligible request deposits budget-percent / 100 of a hedge, up to budget-burst hedges, and
+ * each hedge withdraws one. Hedges therefore never add more than budget-percent extra calls over
+ * time: when every call is slow because USER-SERVICE as a whole is overloaded, the budget runs dry
+ * and hedging stops instead of multiplying the load.
+ */
+final class HedgeBudget {
+
+    private static final long SCALE = 1000;
+
+    private final AtomicLong balance = new AtomicLong();
+
+    void deposit(double percent, int burst) {
+        long amount = Math.round(percent * SCALE / 100);
+        long max = burst * SCALE;
+        balance.getAndUpdate(current -> Math.min(max, current + amount));
+    }
+
+    boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import com.gn.reminder.gateway.resilience.DeadlinePropagationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Hedged requests for GET/HEAD on the lb:// routes listed in gateway.hedging.routes.
+ *
+ * The call to the instance the load balancer picked goes on down the chain and is proxied by
+ * NettyRoutingFilter as usual, with the route's response timeout and a streamed body. It gets a head
+ * start of the route's recent latency percentile (gateway.hedging.percentile); if its response
+ * headers are not in by then, or it fails before that, a second call goes to the cheapest other
+ * healthy instance. Whichever answers first is returned and the other is cancelled. Hedges draw on a
+ * global HedgeBudget so they can never amplify an overload.
+ *
+ * The hedge is sent with the gateway's own HttpClient, since two upstream calls cannot share one
+ * exchange, and its body is streamed through to the client. It only gets what is left of the route's
+ * response timeout, and its X-Request-Timeout-Ms is cut by the time already spent. Both calls feed
+ * InstanceStatsRegistry, the loser with its elapsed time, so the slow instance also loses traffic in
+ * the balancer.
+ *
+ * Metrics per route: gateway.hedging.hedges (second calls sent), gateway.hedging.wins (hedge answered
+ * first), gateway.hedging.budget_exhausted
+ */
+@Slf4j
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    // Set when a hedge answered first, so InstanceStatsFilter records the cancelled primary as slow
+    static final String HEDGE_WON_ATTRIBUTE = HedgingFilter.class.getName() + ".hedgeWon";
+
+    private final HedgingProperties properties;
+    private final InstanceStatsRegistry registry;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final HttpClientProperties httpClientProperties;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+
+    private final HedgeBudget budget = new HedgeBudget();
+    private final Map<String, LatencyPercentile> latencies = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingProperties properties,
+                         InstanceStatsRegistry registry,
+                         LoadBalancerClientFactory loadBalancerClientFactory,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                         HttpClientProperties httpClientProperties,
+                         MeterRegistry meterRegistry,
+                         HttpClient httpClient) {
+        this.properties = properties;
+        this.registry = registry;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.headersFilters = headersFilters;
+        this.httpClientProperties = httpClientProperties;
+        this.meterRegistry = meterRegistry;
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        URI requestUrl = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!properties.isEnabled() || route == null || lbResponse == null || !lbResponse.hasServer()
+                || requestUrl == null || ServerWebExchangeUtils.isAlreadyRouted(exchange)
+                || !(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method))
+                || !properties.getRoutes().contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        ServiceInstance primary = lbResponse.getServer();
+        LatencyPercentile latency = latencies.computeIfAbsent(routeId, id -> new LatencyPercentile());
+        long timeoutMillis = DeadlinePropagationFilter.responseTimeoutMillis(route, httpClientProperties);
+        budget.deposit(properties.getBudgetPercent(), properties.getBudgetBurst());
+        long start = System.nanoTime();
+
+        // NettyRoutingFilter completes the chain once the response headers are in; NettyWriteResponseFilter
+        // streams the body afterwards. An empty Optional means the primary answered.
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<Optional<ResponseEntity<Flux<DataBuffer>>>> first = chain.filter(exchange)
+                .doOnSuccess(done -> latency.record(System.nanoTime() - start, properties.getPercentile()))
+                .doOnError(e -> primaryFailed.tryEmitEmpty())
+                .doOnCancel(() -> {
+                    // Lost the race: the elapsed time is a lower bound of the route's latency
+                    latency.record(System.nanoTime() - start, properties.getPercentile());
+                })
+                .then(Mono.just(Optional.empty()));
+
+        Mono<Optional<ResponseEntity<Flux<DataBuffer>>>> hedge = Mono.firstWithSignal(
+                        Mono.delay(hedgeDelay(latency)).then(), primaryFailed.asMono())
+                .then(Mono.defer(() -> sendHedge(exchange, routeId, primary, requestUrl, start, timeoutMillis)))
+                .doOnNext(won -> {
+                    exchange.getAttributes().put(HEDGE_WON_ATTRIBUTE, Boolean.TRUE);
+                    meterRegistry.counter("gateway.hedging.wins", "route", routeId).increment();
+                })
+                .map(Optional::of);
+
+        // The first call to produce a response wins and the other is cancelled
+        return Mono.firstWithValue(first, hedge)
+                .onErrorMap(NoSuchElementException.class,
+                        e -> e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e)
+                .flatMap(winner -> winner.map(upstream -> write(exchange, upstream)).orElseGet(Mono::empty));
+    }
+
+    /**
+     * Send the hedge if the route's response timeout has time left and an instance and budget are free
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> sendHedge(ServerWebExchange exchange, String routeId, ServiceInstance primary,
+                                                             URI requestUrl, long start, long timeoutMillis) {
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        long remainingMillis = timeoutMillis < 0 ? -1 : timeoutMillis - elapsedMillis;
+        if (timeoutMillis >= 0 && remainingMillis <= 0) {
+            return Mono.empty();
+        }
+        return hedgeInstance(routeId, primary).flatMap(instance -> {
+            meterRegistry.counter("gateway.hedging.hedges", "route", routeId).increment();
+            log.debug("Hedging {} {} to {}:{}", exchange.getRequest().getMethod(), requestUrl.getPath(),
+                    instance.getHost(), instance.getPort());
+            URI hedgeUrl = LoadBalancerUriTools.reconstructURI(instance, requestUrl);
+            return call(exchange, instance, hedgeUrl, elapsedMillis, remainingMillis);
+        });
+    }
+
+    private Duration hedgeDelay(LatencyPercentile latency) {
+        long value = latency.valueNanos();
+        if (value < 0) {
+            return properties.getInitialDelay();
+        }
+        long nanos = Math.max(properties.getMinDelay().toNanos(), Math.min(properties.getMaxDelay().toNanos(), value));
+        return Duration.ofNanos(nanos);
+    }
+
+    /**
+     * The cheapest healthy instance other than the primary; empty when there is none or the budget is spent
+     */
+    private Mono<ServiceInstance> hedgeInstance(String routeId, ServiceInstance primary) {
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory
+                .getLazyProvider(primary.getServiceId(), ServiceInstanceListSupplier.class)
+                .getIfAvailable();
+        if (supplier == null) {
+            return Mono.empty();
+        }
+        return supplier.get().next().flatMap(instances -> {
+            long now = System.nanoTime();
+            ServiceInstance best = null;
+            double bestCost = Double.MAX_VALUE;
+            for (ServiceInstance instance : instances) {
+                boolean samePrimary = instance.getHost().equals(primary.getHost()) && instance.getPort() == primary.getPort();
+                InstanceStats stats = registry.get(instance);
+                if (!samePrimary && !stats.isEjected(now) && stats.cost() < bestCost) {
+                    best = instance;
+                    bestCost = stats.cost();
+                }
+            }
+            if (best == null) {
+                return Mono.empty();
+            }
+            if (!budget.tryWithdraw()) {
+                meterRegistry.counter("gateway.hedging.budget_exhausted", "route", routeId).increment();
+                return Mono.empty();
+            }
+            return Mono.just(best);
+        });
+    }
+
+    /**
+     * Send the hedge; emits once its response headers are in, the body is left to stream
+     */
+    private Mono<ResponseEntity<Flux<DataBuffer>>> call(ServerWebExchange exchange, ServiceInstance instance, URI url,
+                                                        long elapsedMillis, long remainingMillis) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange));
+        String timeout = headers.getFirst(DeadlinePropagationFilter.TIMEOUT_HEADER);
+        if (timeout != null) {
+            // The downstream has less time than the primary had, by the time spent waiting for it
+            try {
+                long left = Math.max(1, Long.parseLong(timeout) - elapsedMillis);
+                headers.set(DeadlinePropagationFilter.TIMEOUT_HEADER, Long.toString(left));
+            } catch (NumberFormatException e) {
+                headers.remove(DeadlinePropagationFilter.TIMEOUT_HEADER);
+            }
+        }
+
+        return Mono.defer(() -> {
+            InstanceStats stats = registry.get(instance);
+            stats.start();
+            long start = System.nanoTime();
+            Mono<ResponseEntity<Flux<DataBuffer>>> response = webClient.method(exchange.getRequest().getMethod())
+                    .uri(url)
+                    .headers(outgoing -> {
+                        outgoing.addAll(headers);
+                        outgoing.remove(HttpHeaders.HOST);
+                    })
+                    .retrieve()
+                    // Every status is proxied as is, not turned into an error
+                    .onStatus(status -> true, upstream -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class);
+            if (remainingMillis > 0) {
+                response = response.timeout(Duration.ofMillis(remainingMillis))
+                        .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                                "Response took longer than timeout: " + remainingMillis + "ms", e));
+            }
+            return response
+                    .doOnSuccess(upstream -> registry.complete(instance, stats, System.nanoTime() - start,
+                            upstream == null || upstream.getStatusCode().is5xxServerError()))
+                    .doOnError(e -> registry.complete(instance, stats, System.nanoTime() - start, true))
+                    // Lost the race: the elapsed time is a lower bound of this instance's latency
+                    .doOnCancel(() -> registry.complete(instance, stats, System.nanoTime() - start, false));
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<Flux<DataBuffer>> upstream) {
+        // The primary's response headers may have landed just as it lost; drop its connection so
+        // NettyWriteResponseFilter does not write its body as well
+        Connection primaryConnection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (primaryConnection != null) {
+            exchange.getAttributes().remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+            primaryConnection.dispose();
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstream.getStatusCode());
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstream.getHeaders(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        Flux<DataBuffer> body = upstream.getBody() != null ? upstream.getBody() : Flux.empty();
+        if (HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+            // Keep the upstream Content-Length of the body a GET would return
+            return body.doOnNext(DataBufferUtils::release).then(response.setComplete());
+        }
+        return response.writeWith(body);
+    }
+
+    @Override
+    public int getOrder() {
+        // Right after the load balancer picked the primary; InstanceStatsFilter runs next and measures the primary
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
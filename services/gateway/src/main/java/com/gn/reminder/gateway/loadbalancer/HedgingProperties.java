@@ -0,0 +1,38 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hedged GET/HEAD requests on lb:// routes (gateway.hedging)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = false;
+
+    // Gateway route ids that may be hedged
+    private List<String> routes = new ArrayList<>();
+
+    // A second call goes out when the first has not answered within this percentile of recent latencies
+    private double percentile = 95;
+
+    // Bounds for the adaptive hedge delay; initialDelay applies until enough latencies are known
+    private Duration minDelay = Duration.ofMillis(10);
+
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    private Duration initialDelay = Duration.ofMillis(100);
+
+    // Hedges across all routes may add at most this % of extra calls...
+    private double budgetPercent = 10;
+
+    // ...with at most this many hedges saved up for a burst
+    private int budgetBurst = 20;
+}
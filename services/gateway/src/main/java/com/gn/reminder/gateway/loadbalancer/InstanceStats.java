@@ -0,0 +1,93 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and health of one service instance as seen by this gateway.
+ *
+ * Latency is a peak EWMA: a sample above the average replaces it at once, lower samples pull it
+ * down with a weight that grows with the time since the last sample (decay-time). An instance that
+ * stalls in a GC pause therefore looks slow after its first slow response and recovers within a
+ * few decay times. The balancer cost is latency times (in-flight + 1), so requests piling up on a
+ * stalled instance raise its cost before any of them complete.
+ */
+final class InstanceStats {
+
+    private final LoadBalancingProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Guarded by this
+    private double latencyNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+    private int consecutiveFailures;
+    private int ejections;
+
+    private volatile long ejectedUntilNanos;
+    private volatile boolean ejected;
+
+    InstanceStats(LoadBalancingProperties properties, long nowNanos) {
+        this.properties = properties;
+        this.latencyNanos = properties.getInitialLatency().toNanos();
+        this.lastSampleNanos = nowNanos;
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Request cancelled by the client: frees its slot without a latency or health sample
+     */
+    void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Record a finished request; returns true if it got the instance ejected
+     */
+    synchronized boolean complete(long rttNanos, boolean failed, long nowNanos) {
+        inFlight.decrementAndGet();
+
+        long elapsed = Math.max(0, nowNanos - lastSampleNanos);
+        lastSampleNanos = nowNanos;
+        if (!sampled || rttNanos > latencyNanos) {
+            // The first sample replaces the initial-latency guess
+            sampled = true;
+            latencyNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(double) elapsed / properties.getDecayTime().toNanos());
+            latencyNanos = latencyNanos * weight + rttNanos * (1 - weight);
+        }
+
+        if (!failed) {
+            consecutiveFailures = 0;
+            if (!isEjected(nowNanos)) {
+                ejections = 0;
+            }
+            return false;
+        }
+        if (++consecutiveFailures < properties.getFailureThreshold() || isEjected(nowNanos)) {
+            return false;
+        }
+        consecutiveFailures = 0;
+        ejections++;
+        long ejectionNanos = Math.min(properties.getEjectionTime().toNanos() * ejections,
+                properties.getMaxEjectionTime().toNanos());
+        ejectedUntilNanos = nowNanos + ejectionNanos;
+        ejected = true;
+        return true;
+    }
+
+    boolean isEjected(long nowNanos) {
+        return ejected && nowNanos - ejectedUntilNanos < 0;
+    }
+
+    synchronized double cost() {
+        return latencyNanos * (inFlight.get() + 1);
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-instance stats shared by the load balancers of all services and InstanceStatsFilter.
+ * Instances that have not been chosen for 10 minutes are forgotten, so instance churn does not leak.
+ */
+@Slf4j
+@Component
+public class InstanceStatsRegistry {
+
+    private final LoadBalancingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, InstanceStats> stats = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public InstanceStatsRegistry(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    InstanceStats get(ServiceInstance instance) {
+        return stats.get(key(instance), key -> new InstanceStats(properties, System.nanoTime()));
+    }
+
+    /**
+     * Record a finished request to the instance, ejecting it after repeated failures
+     */
+    void complete(ServiceInstance instance, InstanceStats instanceStats, long rttNanos, boolean failed) {
+        if (instanceStats.complete(rttNanos, failed, System.nanoTime())) {
+            meterRegistry.counter("gateway.loadbalancer.ejections", "service", instance.getServiceId()).increment();
+            log.warn("Ejected instance {}:{} of {} after {} consecutive failures",
+                    instance.getHost(), instance.getPort(), instance.getServiceId(), properties.getFailureThreshold());
+        }
+    }
+
+    LoadBalancingProperties properties() {
+        return properties;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '@' + instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,48 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Percentile over a route's most recent latencies, used as the hedge delay.
+ *
+ * Samples go into a fixed ring; every RECOMPUTE_EVERY samples one recording thread sorts a copy of
+ * the ring and publishes the new percentile, so readers only do a volatile read.
+ */
+final class LatencyPercentile {
+
+    private static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+
+    // -1 until the first recompute
+    private volatile long valueNanos = -1;
+
+    void record(long nanos, double percentile) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), nanos);
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(n + 1, WINDOW), percentile);
+        }
+    }
+
+    /**
+     * Latest percentile in nanoseconds, or -1 while fewer than RECOMPUTE_EVERY samples were recorded
+     */
+    long valueNanos() {
+        return valueNanos;
+    }
+
+    private void recompute(int size, double percentile) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        valueNanos = sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+}
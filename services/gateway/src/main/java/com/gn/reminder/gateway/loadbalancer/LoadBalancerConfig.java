@@ -0,0 +1,14 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Uses PeakEwmaLoadBalancer for every lb:// service instead of round robin
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,60 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency-aware load balancing for lb:// routes (gateway.load-balancer)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancingProperties {
+
+    // false falls back to Spring Cloud LoadBalancer's round robin
+    private boolean enabled = true;
+
+    // How fast old latency samples lose weight once latency improves
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    // Assumed latency of an instance before its first response
+    private Duration initialLatency = Duration.ofMillis(50);
+
+    // Consecutive failures (connect errors, 5xx) that eject an instance
+    private int failureThreshold = 5;
+
+    // First ejection; repeated ejections last longer, up to maxEjectionTime
+    private Duration ejectionTime = Duration.ofSeconds(30);
+
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    // Ejection is ignored when it would leave fewer than (100 - this)% of a service's instances
+    private int maxEjectionPercent = 50;
+
+    private Affinity affinity = new Affinity();
+
+    /**
+     * Consistent-hash affinity: requests of one user go to the same instance while it is healthy and not overloaded
+     */
+    @Data
+    public static class Affinity {
+
+        private boolean enabled = false;
+
+        // Eureka service ids routed by affinity, e.g. USER-SERVICE; other services keep latency-based choice
+        private List<String> services = new ArrayList<>();
+
+        // Request header carrying the affinity key; set by JwtAuthenticationFilter from the verified token
+        private String header = "X-Auth-User-Id";
+
+        // Ring points per instance; more points spread keys more evenly
+        private int virtualNodes = 160;
+
+        // No instance takes more than this multiple of the average in-flight load; excess spills clockwise
+        private double loadFactor = 1.25;
+    }
+}
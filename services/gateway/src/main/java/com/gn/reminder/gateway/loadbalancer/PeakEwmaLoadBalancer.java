@@ -0,0 +1,142 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Power-of-two-choices balancer over peak-EWMA latency and in-flight requests (see InstanceStats).
+ *
+ * Each request compares two random instances and goes to the cheaper one, which steers traffic
+ * away from slow or overloaded instances without the herding of always picking the global best.
+ * Ejected instances are skipped unless that would leave fewer than (100 - max-ejection-percent)%
+ * of the instances, in which case all are used again.
+ *
+ * Services listed under gateway.load-balancer.affinity instead route each user to a fixed instance
+ * on a ConsistentHashRing, so per-instance caches hold a stable subset of users. The pick is bounded
+ * by load: an instance already at load-factor times the average in-flight count is passed over for
+ * the next one on the ring. Requests without the affinity header fall back to the two-choice pick.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final InstanceStatsRegistry registry;
+    private final String serviceId;
+
+    // Rebuilt when the service's instances change
+    private volatile ConsistentHashRing ring;
+    private volatile int ringVirtualNodes;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                InstanceStatsRegistry registry, String serviceId) {
+        this.supplierProvider = supplierProvider;
+        this.registry = registry;
+        this.serviceId = serviceId;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String affinityKey = affinityKey(request);
+        return supplier.get(request).next().map(instances -> select(instances, affinityKey));
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        return select(instances, null);
+    }
+
+    Response<ServiceInstance> select(List<ServiceInstance> instances, String affinityKey) {
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = healthy(instances);
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+        if (affinityKey != null) {
+            ServiceInstance owner = selectByAffinity(instances, candidates, affinityKey);
+            if (owner != null) {
+                return new DefaultResponse(owner);
+            }
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(registry.get(a).cost() <= registry.get(b).cost() ? a : b);
+    }
+
+    private ServiceInstance selectByAffinity(List<ServiceInstance> instances, List<ServiceInstance> candidates,
+                                             String affinityKey) {
+        LoadBalancingProperties.Affinity affinity = registry.properties().getAffinity();
+        ConsistentHashRing current = ring;
+        if (current == null || ringVirtualNodes != affinity.getVirtualNodes() || !current.hasMembers(instances)) {
+            // The ring covers ejected instances too, so an ejection only moves that instance's users
+            current = new ConsistentHashRing(instances, affinity.getVirtualNodes());
+            ringVirtualNodes = affinity.getVirtualNodes();
+            ring = current;
+        }
+
+        int totalInFlight = 0;
+        for (ServiceInstance candidate : candidates) {
+            totalInFlight += registry.get(candidate).inFlight();
+        }
+        int capacity = (int) Math.ceil(affinity.getLoadFactor() * (totalInFlight + 1) / candidates.size());
+
+        ServiceInstance owner = current.pick(affinityKey,
+                instance -> candidates.contains(instance) && registry.get(instance).inFlight() < capacity);
+        if (owner == null) {
+            log.debug("No instance of {} under its load bound for affinity key", serviceId);
+        }
+        return owner;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private String affinityKey(Request request) {
+        LoadBalancingProperties.Affinity affinity = registry.properties().getAffinity();
+        if (!affinity.isEnabled() || affinity.getServices().stream().noneMatch(serviceId::equalsIgnoreCase)) {
+            return null;
+        }
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null) {
+            return context.getClientRequest().getHeaders().getFirst(affinity.getHeader());
+        }
+        return null;
+    }
+
+    private List<ServiceInstance> healthy(List<ServiceInstance> instances) {
+        long now = System.nanoTime();
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!registry.get(instance).isEjected(now)) {
+                healthy.add(instance);
+            }
+        }
+        int minHealthy = (int) Math.ceil(instances.size() * (100 - registry.properties().getMaxEjectionPercent()) / 100.0);
+        if (healthy.isEmpty() || healthy.size() < minHealthy) {
+            // Too many instances look bad: more likely a shared problem than bad instances
+            return instances;
+        }
+        return healthy;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Rate limit of limitForPeriod requests per period, with an optional wait of up to timeout
+ * for a permit before a request is rejected
+ */
+public record Bandwidth(long limitForPeriod, long periodNanos, long timeoutNanos) {
+
+    public Bandwidth {
+        if (limitForPeriod < 1) {
+            throw new IllegalArgumentException("limitForPeriod must be at least 1");
+        }
+        if (periodNanos < 1) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        if (timeoutNanos < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+    }
+
+    public static Bandwidth of(long limitForPeriod, Duration period, Duration timeout) {
+        return new Bandwidth(limitForPeriod, period.toNanos(), timeout.toNanos());
+    }
+
+    /**
+     * Time it takes the bucket to refill one permit
+     */
+    public long emissionIntervalNanos() {
+        return Math.max(1, periodNanos / limitForPeriod);
+    }
+}
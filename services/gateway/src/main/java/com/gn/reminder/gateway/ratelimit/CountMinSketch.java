@@ -0,0 +1,53 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Count-Min Sketch over 64-bit key hashes.
+ *
+ * depth rows of width counters in one AtomicLongArray; row indices are derived from the two halves
+ * of the hash (Kirsch-Mitzenmacher), so one hash per key is enough.
+ * Estimates never undercount and overcount by at most total / width with high probability.
+ */
+final class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int depth;
+    private final int width;
+    private final int mask;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Count-Min Sketch depth and width must be positive");
+        }
+        this.width = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    /**
+     * Count one occurrence of the key and return its new estimate
+     */
+    long add(long keyHash) {
+        int h1 = (int) keyHash;
+        int h2 = (int) (keyHash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & mask;
+            estimate = Math.min(estimate, counters.incrementAndGet(row * width + column));
+        }
+        return estimate;
+    }
+
+    long estimate(long keyHash) {
+        int h1 = (int) keyHash;
+        int h2 = (int) (keyHash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = (h1 + row * h2) & mask;
+            estimate = Math.min(estimate, counters.get(row * width + column));
+        }
+        return estimate;
+    }
+}
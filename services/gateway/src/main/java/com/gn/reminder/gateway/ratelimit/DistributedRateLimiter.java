@@ -0,0 +1,204 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cluster-wide rate limiter shared by all gateway replicas.
+ *
+ * The bucket for each key lives in Redis and is updated atomically by scripts/token_bucket.lua.
+ * Each replica leases small batches of tokens (lease-size) and hands them out locally until the
+ * lease is used up or expires (lease-ttl), so most requests need no Redis round trip.
+ * Concurrent requests for the same key share a single lease refill; waiters the shared lease cannot
+ * serve fetch another one, and are only rejected once Redis itself has no token left. A denial is
+ * remembered until Redis said the next token is due, so rejected clients do not reach Redis.
+ *
+ * Redis errors surface as a failed Mono; the caller falls back to its local limiter.
+ * After an error Redis is skipped for fallback-duration so an outage costs no timeouts per request.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.distributed.enabled", havingValue = "true")
+public class DistributedRateLimiter {
+
+    private static final String KEY_PREFIX = "gateway:rate-limit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> script;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final Duration redisTimeout;
+    private final long fallbackNanos;
+
+    private final Cache<String, Lease> leases;
+    private final Map<String, Mono<Lease>> refills = new ConcurrentHashMap<>();
+    private volatile long redisRetryAtNanos = System.nanoTime();
+
+    private final Counter leaseFetches;
+    private final Counter redisFailures;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DistributedRateLimiter(
+            ReactiveStringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.distributed.lease-size:5}") int leaseSize,
+            @Value("${gateway.rate-limit.distributed.lease-ttl:1s}") Duration leaseTtl,
+            @Value("${gateway.rate-limit.distributed.redis-timeout:100ms}") Duration redisTimeout,
+            @Value("${gateway.rate-limit.distributed.fallback-duration:5s}") Duration fallbackDuration,
+            @Value("${gateway.rate-limit.max-keys:1048576}") long maxKeys) {
+        this.redisTemplate = redisTemplate;
+        this.script = (RedisScript) RedisScript.of(new ClassPathResource("scripts/token_bucket.lua"), List.class);
+        this.leaseSize = leaseSize;
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.redisTimeout = redisTimeout;
+        this.fallbackNanos = fallbackDuration.toNanos();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new LeaseExpiry())
+                .build();
+        this.leaseFetches = meterRegistry.counter("gateway.ratelimit.distributed.lease.fetches");
+        this.redisFailures = meterRegistry.counter("gateway.ratelimit.distributed.redis.failures");
+    }
+
+    /**
+     * Take one permit for the given key from the cluster-wide bucket.
+     * Errors with RedisUnavailableException when the caller should use its local limiter instead.
+     */
+    public Mono<RateLimitDecision> tryAcquire(String key, Bandwidth bandwidth) {
+        Lease current = leases.getIfPresent(key);
+        RateLimitDecision local = takeFromLease(current, bandwidth);
+        if (local != null) {
+            return Mono.just(local);
+        }
+        if (current != null && System.nanoTime() - current.deniedUntilNanos() < 0) {
+            // Redis denied this key and no token is due yet
+            return Mono.just(rejected(current, bandwidth));
+        }
+        if (System.nanoTime() - redisRetryAtNanos < 0) {
+            return Mono.error(new RedisUnavailableException());
+        }
+        return refill(key, bandwidth)
+                .flatMap(lease -> {
+                    RateLimitDecision decision = takeFromLease(lease, bandwidth);
+                    if (decision != null) {
+                        return Mono.just(decision);
+                    }
+                    if (lease.redisRemaining() > 0) {
+                        // Shared lease used up by concurrent waiters while Redis still has tokens
+                        return tryAcquire(key, bandwidth);
+                    }
+                    return Mono.just(rejected(lease, bandwidth));
+                });
+    }
+
+    private RateLimitDecision takeFromLease(Lease lease, Bandwidth bandwidth) {
+        if (lease == null || System.nanoTime() - lease.expiresAtNanos() > 0) {
+            return null;
+        }
+        int left = lease.tokens().decrementAndGet();
+        if (left < 0) {
+            return null;
+        }
+        long remaining = left + lease.redisRemaining();
+        long reset = Math.max(0, bandwidth.limitForPeriod() - remaining) * bandwidth.emissionIntervalNanos();
+        return new RateLimitDecision(true, 0, remaining, reset, 0);
+    }
+
+    private RateLimitDecision rejected(Lease lease, Bandwidth bandwidth) {
+        long reset = Math.max(0, bandwidth.limitForPeriod() - lease.redisRemaining()) * bandwidth.emissionIntervalNanos();
+        long untilDue = lease.deniedUntilNanos() - System.nanoTime();
+        long retryAfter = untilDue > 0 ? untilDue : bandwidth.emissionIntervalNanos();
+        return new RateLimitDecision(false, 0, 0, reset, retryAfter);
+    }
+
+    private Mono<Lease> refill(String key, Bandwidth bandwidth) {
+        return refills.computeIfAbsent(key, k -> fetchLease(k, bandwidth)
+                .doFinally(signal -> refills.remove(k))
+                .cache());
+    }
+
+    private Mono<Lease> fetchLease(String key, Bandwidth bandwidth) {
+        long intervalMillis = Math.max(1, bandwidth.emissionIntervalNanos() / 1_000_000);
+        long batch = Math.min(leaseSize, bandwidth.limitForPeriod());
+        List<String> args = List.of(
+                String.valueOf(bandwidth.limitForPeriod()),
+                String.valueOf(intervalMillis),
+                String.valueOf(batch));
+
+        return redisTemplate.execute(script, List.of(KEY_PREFIX + key), args)
+                .next()
+                .timeout(redisTimeout)
+                .map(result -> {
+                    leaseFetches.increment();
+                    long now = System.nanoTime();
+                    int granted = result.get(0).intValue();
+                    Lease lease = new Lease(
+                            new AtomicInteger(granted),
+                            now + leaseTtlNanos,
+                            result.get(1),
+                            granted == 0 ? now + result.get(2) * 1_000_000 : now);
+                    leases.put(key, lease);
+                    return lease;
+                })
+                .onErrorMap(e -> {
+                    redisFailures.increment();
+                    redisRetryAtNanos = System.nanoTime() + fallbackNanos;
+                    log.warn("Distributed rate limiter unavailable, using local limits for {}ms: {}",
+                            fallbackNanos / 1_000_000, e.getMessage());
+                    return new RedisUnavailableException();
+                });
+    }
+
+    /**
+     * Tokens leased from Redis for one key on this replica; deniedUntilNanos is set when Redis granted none
+     */
+    private record Lease(AtomicInteger tokens, long expiresAtNanos, long redisRemaining, long deniedUntilNanos) {
+    }
+
+    /**
+     * A lease lives for lease-ttl, a denial until its next token is due, whichever is longer
+     */
+    private final class LeaseExpiry implements Expiry<String, Lease> {
+
+        @Override
+        public long expireAfterCreate(String key, Lease lease, long currentTime) {
+            return Math.max(leaseTtlNanos, lease.deniedUntilNanos() - System.nanoTime());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Lease lease, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, lease, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Lease lease, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Redis could not be reached; the caller should apply local-only limits
+     */
+    public static class RedisUnavailableException extends RuntimeException {
+
+        RedisUnavailableException() {
+            super("Distributed rate limiter unavailable", null, false, false);
+        }
+    }
+}
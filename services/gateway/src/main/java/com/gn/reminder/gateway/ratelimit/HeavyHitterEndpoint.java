@@ -0,0 +1,31 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint (/actuator/heavyhitters) listing the clients consuming the most requests
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHitterEndpoint {
+
+    private final HeavyHitterTracker tracker;
+
+    public HeavyHitterEndpoint(HeavyHitterTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> heavyHitters() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("window", tracker.getWindow().toString());
+        result.put("topK", tracker.getTopK());
+        result.put("lastWindow", tracker.lastWindow());
+        result.put("currentWindow", tracker.currentWindow());
+        return result;
+    }
+}
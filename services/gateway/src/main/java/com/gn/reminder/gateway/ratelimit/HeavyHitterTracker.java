@@ -0,0 +1,209 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming heavy-hitter detection over rate-limit keys (user:... / ip:...).
+ *
+ * Every request is counted in a Count-Min Sketch; a Space-Saving style set of the top-k keys keeps the
+ * candidates whose estimate beat the smallest member. Only keys entering the set take a lock, so known
+ * heavy hitters and light keys are both counted lock-free. Memory is fixed by sketch size and top-k,
+ * no matter how many distinct keys are seen.
+ *
+ * Counts restart every window; the last completed window is exposed through the heavyhitters actuator
+ * endpoint and as gateway.ratelimit.heavy_hitters.rate{rank} gauges (keys are not used as tags so the
+ * number of time series stays bounded).
+ */
+@Component
+public class HeavyHitterTracker {
+
+    private final boolean enabled;
+    private final int topK;
+    private final int sketchDepth;
+    private final int sketchWidth;
+    private final Duration window;
+
+    private volatile Window current;
+    private volatile List<HeavyHitter> lastWindow = List.of();
+    private Disposable rotator;
+
+    public HeavyHitterTracker(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.heavy-hitters.enabled:true}") boolean enabled,
+            @Value("${gateway.heavy-hitters.top-k:20}") int topK,
+            @Value("${gateway.heavy-hitters.sketch-depth:4}") int sketchDepth,
+            @Value("${gateway.heavy-hitters.sketch-width:4096}") int sketchWidth,
+            @Value("${gateway.heavy-hitters.window:10s}") Duration window) {
+        this.enabled = enabled;
+        this.topK = topK;
+        this.sketchDepth = sketchDepth;
+        this.sketchWidth = sketchWidth;
+        this.window = window;
+        this.current = new Window(System.nanoTime());
+
+        for (int rank = 1; rank <= topK; rank++) {
+            int index = rank - 1;
+            Gauge.builder("gateway.ratelimit.heavy_hitters.rate", this, tracker -> tracker.rateAt(index))
+                    .tag("rank", String.valueOf(rank))
+                    .description("Requests per second of the n-th heaviest client in the last window")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            rotator = Flux.interval(window, window)
+                    .onBackpressureDrop()
+                    .subscribe(tick -> rotate());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rotator != null) {
+            rotator.dispose();
+        }
+    }
+
+    /**
+     * Count one request for the given rate-limit key
+     */
+    public void record(String key) {
+        if (enabled) {
+            current.record(key);
+        }
+    }
+
+    /**
+     * Heaviest keys of the last completed window, heaviest first
+     */
+    public List<HeavyHitter> lastWindow() {
+        return lastWindow;
+    }
+
+    /**
+     * Heaviest keys of the window in progress, heaviest first
+     */
+    public List<HeavyHitter> currentWindow() {
+        return current.snapshot(System.nanoTime());
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Close the current window and start a new one
+     */
+    void rotate() {
+        Window finished = current;
+        long now = System.nanoTime();
+        current = new Window(now);
+        lastWindow = finished.snapshot(now);
+    }
+
+    private double rateAt(int index) {
+        List<HeavyHitter> hitters = lastWindow;
+        return index < hitters.size() ? hitters.get(index).ratePerSecond() : 0;
+    }
+
+    /**
+     * Estimated traffic of one key
+     *
+     * @param count         estimated requests in the window (never undercounted)
+     * @param ratePerSecond count divided by the window length
+     * @param share         fraction of all requests in the window
+     */
+    public record HeavyHitter(String key, long count, double ratePerSecond, double share) {
+    }
+
+    /**
+     * Sketch and top-k candidates of one counting window
+     */
+    private final class Window {
+
+        private final long startNanos;
+        private final CountMinSketch sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        private final LongAdder total = new LongAdder();
+        // key -> hash; at most topK entries
+        private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+        // Estimate a key must exceed to displace a candidate; a stale value only causes extra checks
+        private volatile long admissionThreshold;
+
+        Window(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void record(String key) {
+            total.increment();
+            long keyHash = KeyHash.hash(key);
+            long estimate = sketch.add(keyHash);
+            if (estimate > admissionThreshold && !candidates.containsKey(key)) {
+                admit(key, keyHash, estimate);
+            }
+        }
+
+        private synchronized void admit(String key, long keyHash, long estimate) {
+            if (candidates.containsKey(key)) {
+                return;
+            }
+            if (candidates.size() < topK) {
+                candidates.put(key, keyHash);
+                return;
+            }
+
+            // Space-Saving: replace the smallest candidate if the newcomer has overtaken it
+            String smallestKey = null;
+            long smallest = Long.MAX_VALUE;
+            long secondSmallest = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                long count = sketch.estimate(candidate.getValue());
+                if (count < smallest) {
+                    secondSmallest = smallest;
+                    smallest = count;
+                    smallestKey = candidate.getKey();
+                } else if (count < secondSmallest) {
+                    secondSmallest = count;
+                }
+            }
+            if (estimate > smallest) {
+                candidates.remove(smallestKey);
+                candidates.put(key, keyHash);
+                admissionThreshold = Math.min(estimate, secondSmallest);
+            } else {
+                admissionThreshold = smallest;
+            }
+        }
+
+        List<HeavyHitter> snapshot(long nowNanos) {
+            double seconds = Math.max(1, nowNanos - startNanos) / 1e9;
+            long requests = Math.max(1, total.sum());
+            List<HeavyHitter> hitters = new ArrayList<>(candidates.size());
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                long count = sketch.estimate(candidate.getValue());
+                hitters.add(new HeavyHitter(candidate.getKey(), count, count / seconds, (double) count / requests));
+            }
+            hitters.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+            return List.copyOf(hitters);
+        }
+    }
+}
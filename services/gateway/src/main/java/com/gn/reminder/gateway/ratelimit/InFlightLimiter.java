@@ -0,0 +1,79 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the requests a single client (user:... / ip:...) may have in flight at once.
+ *
+ * Counts live in a fixed array of striped atomic counters indexed by key hash, so memory does not
+ * depend on the number of clients. Keys that share a stripe share its count; with the default
+ * 65536 stripes that only makes the cap stricter for an unlucky few, never looser.
+ * Every successful tryAcquire must be paired with exactly one release.
+ */
+@Component
+public class InFlightLimiter {
+
+    private final boolean enabled;
+    private final int maxPerKey;
+    private final AtomicIntegerArray counts;
+    private final int mask;
+    private final Counter rejected;
+
+    public InFlightLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.in-flight.enabled:true}") boolean enabled,
+            @Value("${gateway.rate-limit.in-flight.max-per-key:20}") int maxPerKey,
+            @Value("${gateway.rate-limit.in-flight.stripes:65536}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.enabled = enabled;
+        this.maxPerKey = maxPerKey;
+        this.counts = new AtomicIntegerArray(size);
+        this.mask = size - 1;
+        this.rejected = meterRegistry.counter("gateway.ratelimit.inflight.rejected");
+    }
+
+    /**
+     * Reserve an in-flight slot for the key; returns the stripe to release, or -1 when the key is at its cap
+     */
+    public int tryAcquire(String key) {
+        if (!enabled) {
+            return 0;
+        }
+        int stripe = (int) KeyHash.hash(key) & mask;
+        while (true) {
+            int current = counts.get(stripe);
+            if (current >= maxPerKey) {
+                rejected.increment();
+                return -1;
+            }
+            if (counts.compareAndSet(stripe, current, current + 1)) {
+                return stripe;
+            }
+        }
+    }
+
+    public void release(int stripe) {
+        if (enabled) {
+            counts.decrementAndGet(stripe);
+        }
+    }
+
+    public int getMaxPerKey() {
+        return maxPerKey;
+    }
+
+    /**
+     * Requests currently in flight across all keys; scans every stripe, meant for tests and diagnostics
+     */
+    public long totalInFlight() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+}
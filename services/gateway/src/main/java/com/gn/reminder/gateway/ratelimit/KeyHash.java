@@ -0,0 +1,27 @@
+package com.gn.reminder.gateway.ratelimit;
+
+/**
+ * 64-bit FNV-1a over a key's chars, finished with the MurmurHash3 mixer so nearby keys land far apart.
+ *
+ * One hash for every structure keyed by client or instance: rate-limiter slots, in-flight stripes,
+ * the heavy-hitter sketch and the consistent-hash ring.
+ */
+public final class KeyHash {
+
+    private KeyHash() {
+    }
+
+    public static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
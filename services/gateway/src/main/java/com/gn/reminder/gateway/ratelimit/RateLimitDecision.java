@@ -0,0 +1,18 @@
+package com.gn.reminder.gateway.ratelimit;
+
+/**
+ * Outcome of a single permit request against a TokenBucketRateLimiter
+ *
+ * @param allowed         whether the request may proceed
+ * @param waitNanos       how long an allowed request must wait for its permit (0 when a permit was available)
+ * @param remaining       permits left in the bucket after this request
+ * @param resetNanos      time until the bucket is full again
+ * @param retryAfterNanos for a rejected request, time until a permit is available
+ */
+public record RateLimitDecision(
+        boolean allowed,
+        long waitNanos,
+        long remaining,
+        long resetNanos,
+        long retryAfterNanos) {
+}
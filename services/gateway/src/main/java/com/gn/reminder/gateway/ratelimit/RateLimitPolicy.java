@@ -0,0 +1,18 @@
+package com.gn.reminder.gateway.ratelimit;
+
+/**
+ * A compiled rate-limit policy
+ *
+ * @param id        policy id, giving each policy its own bucket per client; null for the global default
+ * @param bandwidth limit applied to each client
+ * @param period    human-readable refresh period for error messages
+ */
+public record RateLimitPolicy(String id, Bandwidth bandwidth, String period) {
+
+    /**
+     * Bucket key for a client under this policy; the global default keeps the bare client key
+     */
+    public String bucketKey(String clientKey) {
+        return id == null ? clientKey : id + "|" + clientKey;
+    }
+}
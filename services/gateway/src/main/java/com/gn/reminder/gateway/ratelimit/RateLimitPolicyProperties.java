@@ -0,0 +1,43 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Declarative rate-limit policies (gateway.rate-limit.policies).
+ * A policy applies when every criterion it sets matches the request; unset criteria match anything.
+ * Requests that match no policy use the global gatewayRateLimiter limit.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitPolicyProperties {
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+
+        private String id;
+
+        // Gateway route id, e.g. user-service
+        private String routeId;
+
+        // Exact path (/api/v1/auth/login) or prefix ending in /** (/api/v1/user/**)
+        private String path = "/**";
+
+        // HTTP methods; empty means any
+        private List<String> methods = new ArrayList<>();
+
+        // Value of the token's tier claim; unset means any caller
+        private String tier;
+
+        private int limitForPeriod;
+
+        private Duration limitRefreshPeriod = Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,166 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rate-limit policies compiled into a path-segment trie.
+ *
+ * Each trie node holds the policies whose path ends there (exact) or continues below it (prefix, /**),
+ * indexed route id -> method -> tier with "*" for criteria a policy leaves open.
+ * Resolving a request walks the path once and does at most eight hash lookups per node,
+ * so the cost depends on path depth only, never on the number of policies.
+ *
+ * Precedence: an exact path beats a prefix, a deeper prefix beats a shallower one,
+ * and at the same path a specific route, method or tier beats "*" (in that order).
+ * Among identical selectors the first declared policy wins.
+ */
+public final class RateLimitPolicyTable {
+
+    private static final String ANY = "*";
+
+    private final Node root = new Node();
+    private final RateLimitPolicy defaultPolicy;
+
+    private RateLimitPolicyTable(RateLimitPolicy defaultPolicy) {
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    /**
+     * Compile policies; every policy shares the given permit timeout (zero when rejecting fast)
+     */
+    public static RateLimitPolicyTable compile(List<RateLimitPolicyProperties.Policy> policies,
+                                               RateLimitPolicy defaultPolicy, Duration timeout) {
+        RateLimitPolicyTable table = new RateLimitPolicyTable(defaultPolicy);
+        for (RateLimitPolicyProperties.Policy policy : policies) {
+            table.add(policy, timeout);
+        }
+        return table;
+    }
+
+    public RateLimitPolicy defaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Most specific policy for the request, or the default policy when none matches
+     */
+    public RateLimitPolicy resolve(String routeId, String method, String tier, String path) {
+        RateLimitPolicy best = root.prefix.find(routeId, method, tier);
+        Node node = root;
+        int start = 0;
+        int length = path.length();
+
+        while (start < length) {
+            if (path.charAt(start) == '/') {
+                start++;
+                continue;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) {
+                return best != null ? best : defaultPolicy;
+            }
+            RateLimitPolicy prefixMatch = node.prefix.find(routeId, method, tier);
+            if (prefixMatch != null) {
+                best = prefixMatch;
+            }
+            start = end;
+        }
+
+        RateLimitPolicy exactMatch = node.exact.find(routeId, method, tier);
+        if (exactMatch != null) {
+            return exactMatch;
+        }
+        return best != null ? best : defaultPolicy;
+    }
+
+    private void add(RateLimitPolicyProperties.Policy policy, Duration timeout) {
+        if (policy.getId() == null || policy.getLimitForPeriod() < 1) {
+            throw new IllegalArgumentException("Rate-limit policy needs an id and a positive limit-for-period");
+        }
+        RateLimitPolicy compiled = new RateLimitPolicy(
+                policy.getId(),
+                Bandwidth.of(policy.getLimitForPeriod(), policy.getLimitRefreshPeriod(), timeout),
+                policy.getLimitRefreshPeriod().toSeconds() + "s");
+
+        String path = policy.getPath() == null ? "/**" : policy.getPath();
+        boolean prefix = path.endsWith("/**");
+        if (prefix) {
+            path = path.substring(0, path.length() - 3);
+        }
+
+        Node node = root;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.contains("*")) {
+                throw new IllegalArgumentException(
+                        "Rate-limit policy " + policy.getId() + ": only a trailing /** wildcard is supported");
+            }
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+
+        Selectors selectors = prefix ? node.prefix : node.exact;
+        String routeId = policy.getRouteId() == null ? ANY : policy.getRouteId();
+        String tier = policy.getTier() == null ? ANY : policy.getTier();
+        if (policy.getMethods().isEmpty()) {
+            selectors.put(routeId, ANY, tier, compiled);
+        } else {
+            for (String method : policy.getMethods()) {
+                selectors.put(routeId, method.toUpperCase(Locale.ROOT), tier, compiled);
+            }
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final Selectors exact = new Selectors();
+        final Selectors prefix = new Selectors();
+    }
+
+    /**
+     * route id -> method -> tier -> policy, with "*" entries for open criteria
+     */
+    private static final class Selectors {
+        final Map<String, Map<String, Map<String, RateLimitPolicy>>> byRoute = new HashMap<>();
+
+        void put(String routeId, String method, String tier, RateLimitPolicy policy) {
+            byRoute.computeIfAbsent(routeId, r -> new HashMap<>())
+                    .computeIfAbsent(method, m -> new HashMap<>())
+                    .putIfAbsent(tier, policy);
+        }
+
+        RateLimitPolicy find(String routeId, String method, String tier) {
+            if (byRoute.isEmpty()) {
+                return null;
+            }
+            RateLimitPolicy policy = findForRoute(byRoute.get(routeId), method, tier);
+            return policy != null ? policy : findForRoute(byRoute.get(ANY), method, tier);
+        }
+
+        private static RateLimitPolicy findForRoute(Map<String, Map<String, RateLimitPolicy>> byMethod,
+                                                    String method, String tier) {
+            if (byMethod == null) {
+                return null;
+            }
+            RateLimitPolicy policy = findForMethod(byMethod.get(method), tier);
+            return policy != null ? policy : findForMethod(byMethod.get(ANY), tier);
+        }
+
+        private static RateLimitPolicy findForMethod(Map<String, RateLimitPolicy> byTier, String tier) {
+            if (byTier == null) {
+                return null;
+            }
+            RateLimitPolicy policy = tier != null ? byTier.get(tier) : null;
+            return policy != null ? policy : byTier.get(ANY);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Periodic snapshots of the local token bucket table to a file, restored on startup,
+ * so a deploy does not hand every client a full bucket.
+ *
+ * Snapshots scan the table without locking on a background thread and only store buckets that are
+ * not full, as the time left until they are full. They are streamed through one reused buffer to a
+ * temporary file and moved into place, so a crash mid-write leaves the previous snapshot intact.
+ * Snapshots are serialised, so the final one on shutdown waits for a periodic one still running.
+ * Restore runs while the gateway is initialising, i.e. before it registers with Eureka.
+ *
+ * File layout: magic, wall-clock time of the snapshot (epoch millis), entry count,
+ * then per entry key tag, refill period and remaining debt (all in nanos).
+ */
+@Slf4j
+@Component
+public class RateLimitSnapshotStore {
+
+    private static final long MAGIC = 0x524C534E41503031L; // "RLSNAP01"
+    private static final int HEADER_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int ENTRY_BYTES = 3 * Long.BYTES;
+    private static final int WRITE_BUFFER_ENTRIES = 4096;
+
+    private final boolean enabled;
+    private final Path path;
+    private final Duration interval;
+    private Disposable snapshotter;
+    private TokenBucketRateLimiter limiter;
+
+    // Guarded by this; only snapshot() uses it
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_ENTRIES * ENTRY_BYTES);
+
+    public RateLimitSnapshotStore(
+            @Value("${gateway.rate-limit.snapshot.enabled:false}") boolean enabled,
+            @Value("${gateway.rate-limit.snapshot.path:gateway-rate-limit.snapshot}") String path,
+            @Value("${gateway.rate-limit.snapshot.interval:10s}") Duration interval) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.interval = interval;
+    }
+
+    /**
+     * Restore the last snapshot into the limiter, then snapshot it periodically.
+     * Blocks until the restore is done; call while the application context is starting.
+     */
+    public void attach(TokenBucketRateLimiter rateLimiter) {
+        if (!enabled) {
+            return;
+        }
+        this.limiter = rateLimiter;
+        restore(rateLimiter);
+        snapshotter = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::snapshot)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.warn("Rate limiter snapshot failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotter != null) {
+            snapshotter.dispose();
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                log.warn("Final rate limiter snapshot failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    synchronized void snapshot() {
+        TokenBucketRateLimiter rateLimiter = limiter;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            int written;
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.position(HEADER_BYTES);
+                writeBuffer.clear();
+                AtomicInteger count = new AtomicInteger();
+                rateLimiter.forEachActiveBucket((keyTag, periodNanos, debtNanos) -> {
+                    if (writeBuffer.remaining() < ENTRY_BYTES) {
+                        flush(channel);
+                    }
+                    writeBuffer.putLong(keyTag).putLong(periodNanos).putLong(debtNanos);
+                    count.incrementAndGet();
+                });
+                flush(channel);
+                written = count.get();
+
+                writeBuffer.clear();
+                writeBuffer.putLong(MAGIC).putLong(System.currentTimeMillis()).putInt(written).flip();
+                long position = 0;
+                while (writeBuffer.hasRemaining()) {
+                    position += channel.write(writeBuffer, position);
+                }
+                channel.force(false);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Rate limiter snapshot written: {} buckets to {}", written, path);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Cannot write rate limiter snapshot " + path, e);
+        }
+    }
+
+    private void flush(FileChannel channel) {
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writeBuffer.clear();
+    }
+
+    void restore(TokenBucketRateLimiter rateLimiter) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getLong() != MAGIC) {
+                log.warn("Ignoring unrecognised rate limiter snapshot {}", path);
+                return;
+            }
+            long elapsedNanos = Math.max(0, System.currentTimeMillis() - buffer.getLong()) * 1_000_000;
+            int count = Math.min(buffer.getInt(), buffer.remaining() / ENTRY_BYTES);
+
+            int restored = 0;
+            for (int i = 0; i < count; i++) {
+                long keyTag = buffer.getLong();
+                long periodNanos = buffer.getLong();
+                long debtNanos = buffer.getLong() - elapsedNanos;
+                if (debtNanos > 0 && periodNanos > 0) {
+                    rateLimiter.restoreBucket(keyTag, periodNanos, debtNanos);
+                    restored++;
+                }
+            }
+            log.info("Restored {} rate limiter buckets from {} (snapshot age {}ms)",
+                    restored, path, elapsedNanos / 1_000_000);
+        } catch (NoSuchFileException e) {
+            log.info("No rate limiter snapshot at {}, starting with empty buckets", path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot restore rate limiter snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
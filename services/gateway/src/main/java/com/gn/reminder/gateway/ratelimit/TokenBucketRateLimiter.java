@@ -0,0 +1,272 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, memory-bounded token bucket rate limiter keyed by client (IP or user).
+ *
+ * Each key occupies one slot of a fixed-size open-addressing table backed by a single AtomicLongArray:
+ * a 64-bit key hash and the bucket state. The bucket is stored as a GCRA theoretical arrival time,
+ * which is equivalent to a token bucket but fits in one long, so a permit is taken with a single CAS.
+ *
+ * A slot whose bucket has refilled completely belongs to an idle key and is reused by new keys.
+ * When every slot in a probe window is busy, the slot closest to full is evicted.
+ * Memory therefore stays at 16 bytes per slot no matter how many distinct keys are seen.
+ *
+ * The key word also records which refill period the bucket state was computed under. When a key is
+ * used with a different period (limits reloaded at runtime), its bucket is rescaled once, keeping the
+ * fraction of the bucket that is used up, so a reload neither refills nor drains every client at once.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int MAX_PROBES = 8;
+    private static final long EMPTY = 0L;
+
+    // Key word: upper 48 bits identify the key, lower 16 bits index periodNanos
+    private static final int PERIOD_BITS = 16;
+    private static final long PERIOD_MASK = (1L << PERIOD_BITS) - 1;
+    private static final long KEY_MASK = ~PERIOD_MASK;
+
+    // [2 * slot] = key word, [2 * slot + 1] = theoretical arrival time (nanos since baseNanos)
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long baseNanos;
+    private final LongAdder evictions = new LongAdder();
+
+    // Refill periods seen so far, indexed by the key word's period bits; copy-on-write, only grows on reload
+    private volatile long[] periods = new long[0];
+
+    private volatile Bandwidth bandwidth;
+
+    public TokenBucketRateLimiter(int maxKeys, Bandwidth bandwidth) {
+        int capacity = Integer.highestOneBit(Math.max(1023, maxKeys - 1)) << 1;
+        this.slots = new AtomicLongArray(capacity * 2);
+        this.mask = capacity - 1;
+        this.baseNanos = System.nanoTime() - 1;
+        this.bandwidth = bandwidth;
+    }
+
+    public Bandwidth getBandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * Take one permit for the given key under the limiter's default bandwidth
+     */
+    public RateLimitDecision tryAcquire(String key) {
+        return tryAcquire(key, bandwidth, System.nanoTime());
+    }
+
+    /**
+     * Take one permit for the given key under a specific bandwidth (e.g. a per-route policy)
+     */
+    public RateLimitDecision tryAcquire(String key, Bandwidth bw) {
+        return tryAcquire(key, bw, System.nanoTime());
+    }
+
+    RateLimitDecision tryAcquire(String key, long nowNanos) {
+        return tryAcquire(key, bandwidth, nowNanos);
+    }
+
+    RateLimitDecision tryAcquire(String key, Bandwidth bw, long nowNanos) {
+        long now = nowNanos - baseNanos;
+        long period = bw.periodNanos();
+        long interval = bw.emissionIntervalNanos();
+        int stateIndex = 2 * slotFor(keyTag(hash(key)), periodId(period), now) + 1;
+
+        while (true) {
+            long tat = slots.get(stateIndex);
+            long newTat = Math.max(tat, now) + interval;
+            long wait = newTat - now - period;
+
+            if (wait > bw.timeoutNanos()) {
+                long reset = Math.max(0, tat - now);
+                return new RateLimitDecision(false, 0, 0, reset, wait);
+            }
+            if (slots.compareAndSet(stateIndex, tat, newTat)) {
+                long reset = newTat - now;
+                long remaining = Math.max(0, (period - reset) / interval);
+                return new RateLimitDecision(true, Math.max(0, wait), remaining, reset, 0);
+            }
+        }
+    }
+
+    /**
+     * Number of slots available to keys
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Keys whose bucket is not full, i.e. that made a request within the last period.
+     * Scans the whole table; meant for metrics, not the request path.
+     */
+    public int activeKeys() {
+        long now = System.nanoTime() - baseNanos;
+        int active = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (slots.get(2 * slot) != EMPTY && slots.get(2 * slot + 1) > now) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Keys that were displaced from the table while their bucket was still refilling
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Visit every bucket that is not full. Reads slots without locking, so it can run while
+     * requests are served; a bucket updated mid-scan is seen either before or after the update.
+     */
+    void forEachActiveBucket(BucketVisitor visitor) {
+        long now = System.nanoTime() - baseNanos;
+        long[] known = periods;
+        for (int slot = 0; slot <= mask; slot++) {
+            long keyWord = slots.get(2 * slot);
+            long debt = slots.get(2 * slot + 1) - now;
+            if (keyWord != EMPTY && debt > 0) {
+                int periodId = (int) (keyWord & PERIOD_MASK);
+                if (periodId < known.length) {
+                    visitor.visit(keyWord & KEY_MASK, known[periodId], debt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put back a bucket from a snapshot: debtNanos is the time until it would be full again.
+     * Never loosens a bucket that is already further drained.
+     */
+    void restoreBucket(long keyTag, long periodNanos, long debtNanos) {
+        long now = System.nanoTime() - baseNanos;
+        int stateIndex = 2 * slotFor(keyTag & KEY_MASK, periodId(periodNanos), now) + 1;
+        long restored = now + debtNanos;
+        while (true) {
+            long tat = slots.get(stateIndex);
+            if (tat >= restored || slots.compareAndSet(stateIndex, tat, restored)) {
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface BucketVisitor {
+        void visit(long keyTag, long periodNanos, long debtNanos);
+    }
+
+    /**
+     * Find the slot holding keyTag, or claim one for it: the first empty slot in the probe window,
+     * otherwise the slot whose bucket is closest to full
+     */
+    private int slotFor(long keyTag, int periodId, long now) {
+        int home = (int) (keyTag >>> PERIOD_BITS) & mask;
+        long keyWord = keyTag | periodId;
+        while (true) {
+            int victim = -1;
+            long victimKey = EMPTY;
+            long victimTat = Long.MAX_VALUE;
+
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int slot = (home + probe) & mask;
+                long slotKey = slots.get(2 * slot);
+                if ((slotKey & KEY_MASK) == keyTag) {
+                    if ((slotKey & PERIOD_MASK) != periodId) {
+                        rescale(slot, slotKey, keyWord, now);
+                    }
+                    return slot;
+                }
+                if (slotKey == EMPTY) {
+                    // Slots are never emptied, so the key cannot be further along the probe window
+                    victim = slot;
+                    victimKey = EMPTY;
+                    break;
+                }
+                long slotTat = slots.get(2 * slot + 1);
+                if (slotTat < victimTat) {
+                    victim = slot;
+                    victimKey = slotKey;
+                    victimTat = slotTat;
+                }
+            }
+
+            if (slots.compareAndSet(2 * victim, victimKey, keyWord)) {
+                if (victimKey != EMPTY && victimTat > now) {
+                    // Displaced a key that was still active; give the new key a full bucket
+                    evictions.increment();
+                    slots.set(2 * victim + 1, EMPTY);
+                }
+                return victim;
+            }
+            // Another thread claimed the slot first; look again
+        }
+    }
+
+    /**
+     * Move a bucket to a new refill period, keeping the used-up fraction of the bucket.
+     * Only the thread that switches the key word rescales, so each bucket is rescaled once per change.
+     */
+    private void rescale(int slot, long oldKeyWord, long newKeyWord, long now) {
+        if (!slots.compareAndSet(2 * slot, oldKeyWord, newKeyWord)) {
+            return;
+        }
+        long[] known = periods;
+        double scale = (double) known[(int) (newKeyWord & PERIOD_MASK)] / known[(int) (oldKeyWord & PERIOD_MASK)];
+        while (true) {
+            long tat = slots.get(2 * slot + 1);
+            long debt = tat - now;
+            if (debt <= 0 || slots.compareAndSet(2 * slot + 1, tat, now + (long) (debt * scale))) {
+                return;
+            }
+        }
+    }
+
+    private int periodId(long periodNanos) {
+        long[] known = periods;
+        for (int i = 0; i < known.length; i++) {
+            if (known[i] == periodNanos) {
+                return i;
+            }
+        }
+        return registerPeriod(periodNanos);
+    }
+
+    private synchronized int registerPeriod(long periodNanos) {
+        long[] known = periods;
+        for (int i = 0; i < known.length; i++) {
+            if (known[i] == periodNanos) {
+                return i;
+            }
+        }
+        if (known.length > PERIOD_MASK) {
+            throw new IllegalStateException("Too many distinct rate-limit periods");
+        }
+        long[] grown = Arrays.copyOf(known, known.length + 1);
+        grown[known.length] = periodNanos;
+        periods = grown;
+        return known.length;
+    }
+
+    /**
+     * Key hash with the period bits cleared; never EMPTY
+     */
+    private static long keyTag(long keyHash) {
+        long tag = keyHash & KEY_MASK;
+        return tag == EMPTY ? 1L << PERIOD_BITS : tag;
+    }
+
+    /**
+     * KeyHash of the key, never EMPTY
+     */
+    static long hash(String key) {
+        long h = KeyHash.hash(key);
+        return h == EMPTY ? 1 : h;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gn.reminder.gateway.resilience;
+
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tells the downstream service how long the gateway will wait for it.
+ *
+ * The budget is the route's response-timeout metadata (milliseconds, as used by NettyRoutingFilter), else
+ * spring.cloud.gateway.httpclient.response-timeout, minus gateway.deadline.margin for the trip back. It is
+ * sent as X-Request-Timeout-Ms, a relative value so the two hosts' clocks need not agree; the response
+ * timeout starts with the upstream call, which is why this runs right before the load balancer.
+ * A value sent by the client is always replaced, or removed when the route has no timeout.
+ */
+@Slf4j
+@Component
+public class DeadlinePropagationFilter implements GlobalFilter, Ordered {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final HttpClientProperties httpClientProperties;
+    private final long marginMillis;
+    private final boolean enabled;
+
+    public DeadlinePropagationFilter(
+            HttpClientProperties httpClientProperties,
+            @Value("${gateway.deadline.margin:50ms}") Duration margin,
+            @Value("${gateway.deadline.enabled:true}") boolean enabled) {
+        this.httpClientProperties = httpClientProperties;
+        this.marginMillis = margin.toMillis();
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        long budgetMillis = route != null ? budgetMillis(route) : -1;
+        if (budgetMillis < 0 && !exchange.getRequest().getHeaders().containsKey(TIMEOUT_HEADER)) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    if (budgetMillis < 0) {
+                        headers.remove(TIMEOUT_HEADER);
+                    } else {
+                        headers.set(TIMEOUT_HEADER, Long.toString(budgetMillis));
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    /**
+     * @return milliseconds the downstream service has, or -1 when the route has no response timeout
+     */
+    long budgetMillis(Route route) {
+        long timeoutMillis = responseTimeoutMillis(route, httpClientProperties);
+        if (timeoutMillis < 0) {
+            return -1;
+        }
+        return Math.max(1, timeoutMillis - marginMillis);
+    }
+
+    /**
+     * The response timeout NettyRoutingFilter applies to a route: its response-timeout metadata, else the global one
+     *
+     * @return milliseconds, or -1 when the route has no response timeout
+     */
+    public static long responseTimeoutMillis(Route route, HttpClientProperties httpClientProperties) {
+        Long timeoutMillis = routeTimeoutMillis(route);
+        if (timeoutMillis == null) {
+            Duration global = httpClientProperties.getResponseTimeout();
+            timeoutMillis = global != null ? global.toMillis() : -1;
+        }
+        // A negative route timeout disables the global one, as in NettyRoutingFilter
+        return timeoutMillis <= 0 ? -1 : timeoutMillis;
+    }
+
+    private static Long routeTimeoutMillis(Route route) {
+        Object configured = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (configured == null) {
+            return null;
+        }
+        if (configured instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(configured.toString().trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid response-timeout metadata on route {}: {}", route.getId(), configured);
+            return null;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // Before HedgingFilter copies the request headers for its calls
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,255 @@
+package com.gn.reminder.gateway.resilience;
+
+import com.gn.reminder.gateway.cache.ResponseCacheFilter;
+import com.gn.reminder.gateway.concurrency.AdaptiveConcurrencyFilter;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-route circuit breaker and bulkhead (Resilience4j), configured from the config server.
+ *
+ * Settings are read per route id from resilience4j.circuitbreaker.instances.<route-id> and
+ * resilience4j.bulkhead.instances.<route-id>, falling back to the configs.default entries, and are
+ * re-read on config refresh; a route whose settings changed gets a new breaker and bulkhead.
+ * Downstream errors and 5xx responses count as failures, as do calls slower than
+ * slowCallDurationThreshold once they exceed slowCallRateThreshold.
+ *
+ * While a breaker is open, or its route's bulkhead is full, requests are not forwarded: GETs on
+ * cached routes get the caller's last response (stale-if-error, X-Cache: STALE), everything else 503.
+ * The bulkhead never waits, since waiting would block the event loop.
+ *
+ * Metrics per route: gateway.circuitbreaker.state (0 closed, 1 open, 2 half-open, 3 disabled,
+ * 4 forced open), gateway.circuitbreaker.rejected; Resilience4j's own resilience4j.circuitbreaker.*
+ * and resilience4j.bulkhead.* meters are published for the same instances.
+ */
+@Slf4j
+@Component
+public class RouteResilienceFilter implements GlobalFilter, Ordered {
+
+    private static final String CIRCUIT_BREAKER_PREFIX = "resilience4j.circuitbreaker.";
+    private static final String BULKHEAD_PREFIX = "resilience4j.bulkhead.";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ResponseCacheFilter responseCacheFilter;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final boolean enabled;
+
+    private final Map<String, RouteGuard> guards = new ConcurrentHashMap<>();
+
+    public RouteResilienceFilter(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            ResponseCacheFilter responseCacheFilter,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${gateway.resilience.enabled:true}") boolean enabled) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.responseCacheFilter = responseCacheFilter;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Re-read route settings after a config-server refresh; routes whose settings changed start over closed
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        guards.replaceAll((routeId, guard) -> {
+            try {
+                RouteSettings settings = loadSettings(routeId);
+                if (settings.equals(guard.settings())) {
+                    return guard;
+                }
+                log.info("Circuit breaker settings changed for route: {}", routeId);
+                return createGuard(routeId, settings, true);
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid circuit breaker settings for route: {}, keeping current: {}", routeId, e.getMessage());
+                return guard;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        RouteGuard guard = guards.computeIfAbsent(routeId, this::registerGuard);
+        CircuitBreaker circuitBreaker = guard.circuitBreaker();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return reject(exchange, routeId, "circuit_open", guard.settings().waitDurationInOpenState());
+        }
+        Bulkhead bulkhead = guard.bulkhead();
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return reject(exchange, routeId, "bulkhead_full", Duration.ofSeconds(1));
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    long duration = circuitBreaker.getCurrentTimestamp() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), new DownstreamServerError(status));
+                    } else {
+                        circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                    }
+                })
+                .doOnError(e -> circuitBreaker.onError(
+                        circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e))
+                .doOnCancel(circuitBreaker::releasePermission)
+                .doFinally(signal -> bulkhead.onComplete());
+    }
+
+    private RouteGuard registerGuard(String routeId) {
+        RouteGuard guard = createGuard(routeId, loadSettings(routeId), false);
+        Gauge.builder("gateway.circuitbreaker.state", guards,
+                        current -> current.get(routeId).circuitBreaker().getState().getOrder())
+                .tag("route", routeId)
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private RouteGuard createGuard(String routeId, RouteSettings settings, boolean replace) {
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.failureRateThreshold())
+                .slowCallRateThreshold(settings.slowCallRateThreshold())
+                .slowCallDurationThreshold(settings.slowCallDurationThreshold())
+                .slidingWindowSize(settings.slidingWindowSize())
+                .minimumNumberOfCalls(settings.minimumNumberOfCalls())
+                .waitDurationInOpenState(settings.waitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(settings.permittedNumberOfCallsInHalfOpenState())
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.maxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+
+        CircuitBreaker circuitBreaker;
+        Bulkhead bulkhead;
+        if (replace) {
+            circuitBreaker = CircuitBreaker.of(routeId, circuitBreakerConfig);
+            bulkhead = Bulkhead.of(routeId, bulkheadConfig);
+            circuitBreakerRegistry.replace(routeId, circuitBreaker);
+            bulkheadRegistry.replace(routeId, bulkhead);
+        } else {
+            circuitBreaker = circuitBreakerRegistry.circuitBreaker(routeId, circuitBreakerConfig);
+            bulkhead = bulkheadRegistry.bulkhead(routeId, bulkheadConfig);
+        }
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker for route: {} {}", routeId, event.getStateTransition()));
+        return new RouteGuard(settings, circuitBreaker, bulkhead);
+    }
+
+    private RouteSettings loadSettings(String routeId) {
+        return new RouteSettings(
+                circuitBreakerSetting(routeId, "failureRateThreshold", Float.class, 50f),
+                circuitBreakerSetting(routeId, "slowCallRateThreshold", Float.class, 100f),
+                DurationStyle.detectAndParse(circuitBreakerSetting(routeId, "slowCallDurationThreshold", String.class, "60s")),
+                circuitBreakerSetting(routeId, "slidingWindowSize", Integer.class, 100),
+                circuitBreakerSetting(routeId, "minimumNumberOfCalls", Integer.class, 100),
+                DurationStyle.detectAndParse(circuitBreakerSetting(routeId, "waitDurationInOpenState", String.class, "60s")),
+                circuitBreakerSetting(routeId, "permittedNumberOfCallsInHalfOpenState", Integer.class, 10),
+                setting(BULKHEAD_PREFIX, routeId, "maxConcurrentCalls", Integer.class, 25));
+    }
+
+    private <T> T circuitBreakerSetting(String routeId, String name, Class<T> type, T defaultValue) {
+        return setting(CIRCUIT_BREAKER_PREFIX, routeId, name, type, defaultValue);
+    }
+
+    /**
+     * instances.<route-id>.<name>, then configs.default.<name>, then Resilience4j's own default
+     */
+    private <T> T setting(String prefix, String routeId, String name, Class<T> type, T defaultValue) {
+        T value = environment.getProperty(prefix + "instances." + routeId + "." + name, type);
+        if (value == null) {
+            value = environment.getProperty(prefix + "configs.default." + name, type, defaultValue);
+        }
+        return value;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String reason, Duration retryAfter) {
+        // Says nothing about the downstream's latency; must not shrink its concurrency limit
+        exchange.getAttributes().put(AdaptiveConcurrencyFilter.NOT_FORWARDED_ATTRIBUTE, Boolean.TRUE);
+        Optional<Mono<Void>> stale = responseCacheFilter.replayStale(exchange);
+        meterRegistry.counter("gateway.circuitbreaker.rejected", "route", routeId, "reason", reason,
+                "fallback", stale.isPresent() ? "stale" : "fail_fast").increment();
+        if (stale.isPresent()) {
+            log.debug("Serving stale response for route: {} ({})", routeId, reason);
+            return stale.get();
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().add("Content-Type", "application/json");
+        response.getHeaders().add("Retry-After", String.valueOf(Math.max(1, retryAfter.toSeconds())));
+
+        String errorBody = String.format(
+                "{\"error\": \"Service unavailable\", \"message\": \"Route %s is temporarily unavailable, retry later\", \"status\": %d}",
+                routeId, HttpStatus.SERVICE_UNAVAILABLE.value());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(errorBody.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        // After caching/coalescing (-45/-44) and concurrency limiting (-40): only calls that would go downstream
+        // count, and the limiter's own 503s never trip the breaker. Answers given here instead of the
+        // downstream are marked NOT_FORWARDED so they do not feed the limiter either.
+        return -30;
+    }
+
+    private record RouteSettings(float failureRateThreshold, float slowCallRateThreshold,
+                                 Duration slowCallDurationThreshold, int slidingWindowSize,
+                                 int minimumNumberOfCalls, Duration waitDurationInOpenState,
+                                 int permittedNumberOfCallsInHalfOpenState, int maxConcurrentCalls) {
+    }
+
+    private record RouteGuard(RouteSettings settings, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    }
+
+    /**
+     * Records a 5xx response as a circuit breaker failure
+     */
+    private static final class DownstreamServerError extends RuntimeException {
+
+        DownstreamServerError(HttpStatusCode status) {
+            super("Downstream responded " + status.value(), null, false, false);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.gn.reminder.gateway.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Sampled, aggregated logging of authentication failures.
+ * Only the first sample-size failures of each window are logged individually (without stack trace);
+ * the rest are counted per reason and summarised once per window.
+ * Every failure increments gateway.auth.failures{reason}.
+ */
+@Slf4j
+@Component
+public class AuthFailureReporter {
+
+    private final MeterRegistry meterRegistry;
+    private final Duration window;
+    private final int sampleSize;
+
+    private final Map<String, LongAdder> failuresByReason = new ConcurrentHashMap<>();
+    private final AtomicInteger sampledInWindow = new AtomicInteger();
+    private Disposable flusher;
+
+    public AuthFailureReporter(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.failure-log.window:60s}") Duration window,
+            @Value("${jwt.failure-log.sample-size:10}") int sampleSize) {
+        this.meterRegistry = meterRegistry;
+        this.window = window;
+        this.sampleSize = sampleSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = Flux.interval(window, window)
+                .onBackpressureDrop()
+                .subscribe(tick -> flush());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        flush();
+    }
+
+    public void recordMissingHeader(String path) {
+        record("MissingAuthorizationHeader", path, "Missing or invalid Authorization header", null);
+    }
+
+    public void recordInvalidToken(String path, Throwable error) {
+        record(error.getClass().getSimpleName(), path, error.getMessage(), error);
+    }
+
+    private void record(String reason, String path, String detail, Throwable error) {
+        meterRegistry.counter("gateway.auth.failures", "reason", reason).increment();
+        failuresByReason.computeIfAbsent(reason, r -> new LongAdder()).increment();
+
+        if (sampledInWindow.incrementAndGet() <= sampleSize) {
+            log.warn("Authentication failed for path: {} ({}: {})", path, reason, detail);
+        }
+        if (error != null && log.isDebugEnabled()) {
+            log.debug("JWT validation error for path: {}", path, error);
+        }
+    }
+
+    /**
+     * Log one summary line for the failures of the window that just ended, then start a new window
+     */
+    void flush() {
+        int sampled = sampledInWindow.getAndSet(0);
+        if (sampled <= sampleSize) {
+            // Everything was already logged individually
+            failuresByReason.values().forEach(LongAdder::reset);
+            return;
+        }
+
+        Map<String, Long> summary = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<String, LongAdder> entry : failuresByReason.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                summary.put(entry.getKey(), count);
+                total += count;
+            }
+        }
+        log.warn("Authentication failed {} times in the last {} ({} logged individually): {}",
+                total, window, sampleSize, summary);
+    }
+}
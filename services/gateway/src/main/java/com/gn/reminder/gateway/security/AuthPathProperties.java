@@ -0,0 +1,29 @@
+package com.gn.reminder.gateway.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Which paths JwtAuthenticationFilter lets through without a token (gateway.auth).
+ * Rules are exact paths or prefixes ending in /**; see PathRuleMatcher for precedence.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.auth")
+public class AuthPathProperties {
+
+    // Public endpoints that don't require authentication
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/api/v1/auth/signup",
+            "/api/v1/auth/login",
+            "/api/v1/auth/oauth2/**",  // OAuth2 callback endpoints
+            "/eureka/**",
+            "/actuator/**"
+    ));
+
+    // Exceptions below a public prefix that still require a token
+    private List<String> authenticatedPaths = new ArrayList<>();
+}
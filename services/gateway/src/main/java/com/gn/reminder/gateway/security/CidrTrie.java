@@ -0,0 +1,200 @@
+package com.gn.reminder.gateway.security;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Longest-prefix matcher for IPv4 and IPv6 CIDR blocks, built on a path-compressed binary radix trie.
+ *
+ * Nodes exist only where prefixes end or branch, so a lookup visits at most one node per address bit
+ * (32 for IPv4, 128 for IPv6) and compares at most 16 bytes per node: constant time no matter how many
+ * prefixes are loaded. The trie is built once and never modified afterwards, so it can be read from any
+ * thread once published.
+ */
+final class CidrTrie<V> {
+
+    private Node<V> ipv4Root;
+    private Node<V> ipv6Root;
+    private int size;
+
+    /**
+     * Add a block such as 10.0.0.0/8, 2001:db8::/32 or a single address.
+     * Re-adding the same block replaces its value.
+     */
+    void add(String cidr, V value) {
+        int slash = cidr.indexOf('/');
+        String address = slash < 0 ? cidr.trim() : cidr.substring(0, slash).trim();
+        byte[] key = parseAddress(address);
+        if (key == null) {
+            throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+        }
+        int maxLength = key.length * 8;
+        int length = maxLength;
+        if (slash >= 0) {
+            try {
+                length = Integer.parseInt(cidr.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+            }
+            if (length < 0 || length > maxLength) {
+                throw new IllegalArgumentException("Invalid CIDR prefix length: " + cidr);
+            }
+        }
+
+        if (key.length == 4) {
+            ipv4Root = insert(ipv4Root, key, length, value);
+        } else {
+            ipv6Root = insert(ipv6Root, key, length, value);
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Value of the most specific block containing the address; null if none does or it is not an IP literal
+     */
+    V match(String address) {
+        byte[] key = parseAddress(address);
+        if (key == null) {
+            return null;
+        }
+        Node<V> node = key.length == 4 ? ipv4Root : ipv6Root;
+        V best = null;
+        while (node != null && commonPrefixLength(node.key, key, node.length) == node.length) {
+            if (node.value != null) {
+                best = node.value;
+            }
+            if (node.length == key.length * 8) {
+                break;
+            }
+            node = bitAt(key, node.length) == 0 ? node.zero : node.one;
+        }
+        return best;
+    }
+
+    private static <V> Node<V> insert(Node<V> node, byte[] key, int length, V value) {
+        if (node == null) {
+            return new Node<>(key, length, value);
+        }
+        int common = commonPrefixLength(node.key, key, Math.min(node.length, length));
+
+        if (common == node.length) {
+            if (length == node.length) {
+                node.value = value;
+            } else if (bitAt(key, node.length) == 0) {
+                node.zero = insert(node.zero, key, length, value);
+            } else {
+                node.one = insert(node.one, key, length, value);
+            }
+            return node;
+        }
+
+        // The new block covers the existing node: put it above
+        if (common == length) {
+            Node<V> parent = new Node<>(key, length, value);
+            parent.attach(node);
+            return parent;
+        }
+
+        // The prefixes diverge at bit 'common': branch there
+        Node<V> branch = new Node<>(key, common, null);
+        branch.attach(node);
+        branch.attach(new Node<>(key, length, value));
+        return branch;
+    }
+
+    private static int commonPrefixLength(byte[] a, byte[] b, int limit) {
+        int bits = 0;
+        for (int i = 0; bits < limit; i++) {
+            int diff = (a[i] ^ b[i]) & 0xFF;
+            if (diff != 0) {
+                bits += Integer.numberOfLeadingZeros(diff) - 24;
+                return Math.min(bits, limit);
+            }
+            bits += 8;
+        }
+        return limit;
+    }
+
+    private static int bitAt(byte[] key, int index) {
+        return (key[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    /**
+     * Parse an IPv4 or IPv6 literal without ever falling back to a DNS lookup; null if it is not one.
+     * IPv4-mapped IPv6 addresses come back as IPv4.
+     */
+    static byte[] parseAddress(String address) {
+        if (address == null || address.isEmpty()) {
+            return null;
+        }
+        if (address.indexOf(':') < 0) {
+            return parseIpv4(address);
+        }
+        String literal = address.startsWith("[") && address.endsWith("]")
+                ? address.substring(1, address.length() - 1)
+                : address;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != ':' && c != '.' && c != '%') {
+                return null;
+            }
+        }
+        try {
+            // Literals containing ':' are parsed as IPv6 and never resolved
+            return InetAddress.getByName(literal).getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static byte[] parseIpv4(String address) {
+        byte[] bytes = new byte[4];
+        int part = 0;
+        int value = -1;
+        for (int i = 0; i <= address.length(); i++) {
+            char c = i < address.length() ? address.charAt(i) : '.';
+            if (c == '.') {
+                if (value < 0 || part == 4) {
+                    return null;
+                }
+                bytes[part++] = (byte) value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return part == 4 ? bytes : null;
+    }
+
+    private static final class Node<V> {
+        // Only the first 'length' bits of key are meaningful
+        final byte[] key;
+        final int length;
+        V value;
+        Node<V> zero;
+        Node<V> one;
+
+        Node(byte[] key, int length, V value) {
+            this.key = key;
+            this.length = length;
+            this.value = value;
+        }
+
+        void attach(Node<V> child) {
+            if (bitAt(child.key, length) == 0) {
+                zero = child;
+            } else {
+                one = child;
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.gn.reminder.gateway.security;
 
 import io.jsonwebtoken.JwtException;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 /**
  * Hybrid JWT Validator that supports both:
@@ -19,50 +22,74 @@ import org.springframework.stereotype.Component;
 public class HybridJwtValidator {
 
     private final JwtUtil customJwtUtil;
-    private final JwtDecoder keycloakJwtDecoder;
+    private final ReactiveJwtDecoder keycloakJwtDecoder;
+    private final KeycloakJwkStore keycloakJwkStore;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RejectedTokenCache rejectedTokenCache;
 
     @Value("${keycloak.enabled:true}")
     private boolean keycloakEnabled;
 
     /**
-     * Validate JWT token - try custom JWT first, then Keycloak
-     * Returns user info extracted from the token
+     * Validate JWT token - served from the verified-token cache when possible,
+     * rejected without verification if it failed recently,
+     * otherwise verified and cached until the token expires
+     * Returns user info extracted from the token, or a JwtException error
      */
-    public TokenInfo validateToken(String token) {
-        // Try custom JWT first
-        try {
-            if (customJwtUtil.validateToken(token)) {
+    public Mono<TokenInfo> validateToken(String token) {
+        String tokenDigest = TokenDigest.of(token);
+
+        TokenInfo cached = verifiedTokenCache.get(tokenDigest);
+        if (cached != null) {
+            log.debug("Verified token cache hit");
+            return Mono.just(cached);
+        }
+        if (rejectedTokenCache.isRejected(tokenDigest)) {
+            return Mono.error(new RejectedTokenException());
+        }
+
+        return verifyToken(token)
+                .doOnNext(tokenInfo -> verifiedTokenCache.put(tokenDigest, tokenInfo))
+                // Only definitive rejections are remembered, not tokens whose signing key is not known yet
+                .doOnError(e -> e instanceof JwtException && !(e instanceof SigningKeyUnavailableException),
+                        e -> rejectedTokenCache.put(tokenDigest));
+    }
+
+    /**
+     * Verify JWT token with exactly one verifier, chosen from the JOSE header:
+     * HMAC tokens are custom (user-service) tokens, RSA/EC tokens come from Keycloak
+     */
+    private Mono<TokenInfo> verifyToken(String token) {
+        return Mono.defer(() -> {
+            TokenHeader header = TokenHeader.parse(token);
+
+            if (header.isHmac()) {
+                VerifiedJwt verifiedJwt = customJwtUtil.verify(token);
                 log.debug("Valid custom JWT token");
-                return extractCustomJwtInfo(token);
+                return Mono.just(extractCustomJwtInfo(verifiedJwt));
             }
-        } catch (JwtException e) {
-            log.debug("Not a custom JWT token, trying Keycloak: {}", e.getMessage());
-        }
 
-        // Try Keycloak JWT
-        if (keycloakEnabled) {
-            try {
-                var jwt = keycloakJwtDecoder.decode(token);
-                log.debug("Valid Keycloak JWT token");
-                return extractKeycloakJwtInfo(jwt);
-            } catch (org.springframework.security.oauth2.jwt.JwtException e) {
-                log.debug("Not a valid Keycloak JWT token: {}", e.getMessage());
+            if (header.isAsymmetric() && keycloakEnabled) {
+                return keycloakJwtDecoder.decode(token)
+                        .doOnNext(jwt -> log.debug("Valid Keycloak JWT token (kid: {})", header.kid()))
+                        .map(this::extractKeycloakJwtInfo)
+                        .onErrorMap(BadJwtException.class, e -> keycloakJwkStore.hasKey(header.kid())
+                                ? new JwtException("Invalid Keycloak JWT: " + e.getMessage())
+                                : new SigningKeyUnavailableException("Unknown Keycloak signing key: " + header.kid(), e));
             }
-        }
 
-        throw new JwtException("Invalid token: not a valid custom or Keycloak JWT");
+            return Mono.error(new JwtException("Invalid token: unsupported algorithm " + header.alg()));
+        });
     }
 
-    private TokenInfo extractCustomJwtInfo(String token) {
-        var username = customJwtUtil.extractUsername(token);
-        var userId = customJwtUtil.extractUserId(token);
-        var email = customJwtUtil.extractEmail(token);
-        
+    private TokenInfo extractCustomJwtInfo(VerifiedJwt verifiedJwt) {
         return TokenInfo.builder()
-                .userId(userId)
-                .username(username)
-                .email(email)
+                .userId(verifiedJwt.userId())
+                .username(verifiedJwt.subject())
+                .email(verifiedJwt.email())
+                .tier(verifiedJwt.tier())
                 .tokenType(TokenType.CUSTOM)
+                .expiresAt(verifiedJwt.expiresAt())
                 .build();
     }
 
@@ -80,7 +107,9 @@ public class HybridJwtValidator {
                 .userId(userId)
                 .username(username)
                 .email(email)
+                .tier(jwt.getClaimAsString("tier"))
                 .tokenType(TokenType.KEYCLOAK)
+                .expiresAt(jwt.getExpiresAt())
                 .build();
     }
 
@@ -88,13 +117,15 @@ public class HybridJwtValidator {
         CUSTOM, KEYCLOAK
     }
 
-    @lombok.Data
+    @lombok.Value
     @lombok.Builder
     public static class TokenInfo {
-        private String userId;
-        private String username;
-        private String email;
-        private TokenType tokenType;
+        String userId;
+        String username;
+        String email;
+        String tier;
+        TokenType tokenType;
+        Instant expiresAt;
     }
 }
 
@@ -0,0 +1,143 @@
+package com.gn.reminder.gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.net.InetSocketAddress;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * IP allow/block list filter
+ * Rejects clients whose IP falls in a blocked CIDR block with 403, before any token is verified.
+ * The IP is the socket peer, or behind trusted proxies the right-most X-Forwarded-For hop that is not one
+ * of them (see resolveClientIp); unlike RateLimitingFilter.getClientIp it cannot be chosen by the client.
+ * Lists are compiled into a CidrTrie and reloaded on config refresh.
+ */
+@Slf4j
+@Component
+public class IpAccessFilter implements GlobalFilter, Ordered {
+
+    private final IpAccessProperties properties;
+    private final Counter blocked;
+
+    // true = allow, false = block; swapped as a whole on refresh
+    private volatile CidrTrie<Boolean> rules;
+    private volatile CidrTrie<Boolean> trustedProxies;
+
+    public IpAccessFilter(IpAccessProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.blocked = meterRegistry.counter("gateway.ip_access.blocked");
+    }
+
+    @PostConstruct
+    public void init() {
+        this.rules = compile();
+        this.trustedProxies = compileTrustedProxies();
+        log.info("IP access rules loaded: {} allowed and {} blocked blocks",
+                properties.getAllow().size(), properties.getBlock().size());
+    }
+
+    /**
+     * Rebuild the rules after a config-server refresh; invalid entries leave the current rules in place
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        try {
+            CidrTrie<Boolean> proxies = compileTrustedProxies();
+            this.rules = compile();
+            this.trustedProxies = proxies;
+            log.info("IP access rules reloaded: {} allowed and {} blocked blocks",
+                    properties.getAllow().size(), properties.getBlock().size());
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid IP access rules, keeping current rules: {}", e.getMessage());
+        }
+    }
+
+    private CidrTrie<Boolean> compile() {
+        CidrTrie<Boolean> trie = new CidrTrie<>();
+        properties.getBlock().forEach(cidr -> trie.add(cidr, Boolean.FALSE));
+        // Added last so an identical allow entry overrides a block
+        properties.getAllow().forEach(cidr -> trie.add(cidr, Boolean.TRUE));
+        return trie;
+    }
+
+    private CidrTrie<Boolean> compileTrustedProxies() {
+        CidrTrie<Boolean> trie = new CidrTrie<>();
+        properties.getTrustedProxies().forEach(cidr -> trie.add(cidr, Boolean.TRUE));
+        return trie;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        CidrTrie<Boolean> current = rules;
+        if (!properties.isEnabled() || current.size() == 0) {
+            return chain.filter(exchange);
+        }
+
+        String clientIp = resolveClientIp(exchange.getRequest(), trustedProxies);
+        if (Boolean.FALSE.equals(current.match(clientIp))) {
+            blocked.increment();
+            log.debug("Blocked request from: {} to path: {}", clientIp, exchange.getRequest().getPath());
+            return onForbidden(exchange);
+        }
+
+        return chain.filter(exchange);
+    }
+
+    /**
+     * The socket peer, unless it is a trusted proxy: then the right-most X-Forwarded-For hop that is not a
+     * trusted proxy (the address the first trusted proxy saw). If every hop is trusted, the left-most one.
+     */
+    static String resolveClientIp(ServerHttpRequest request, CidrTrie<Boolean> trustedProxies) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        String clientIp = remoteAddress.getAddress().getHostAddress();
+        if (trustedProxies.size() == 0 || trustedProxies.match(clientIp) == null) {
+            return clientIp;
+        }
+
+        List<String> forwardedFor = request.getHeaders().getOrDefault("X-Forwarded-For", List.of());
+        for (int i = forwardedFor.size() - 1; i >= 0; i--) {
+            String[] hops = forwardedFor.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0; j--) {
+                String hop = hops[j].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                clientIp = hop;
+                if (trustedProxies.match(hop) == null) {
+                    return hop;
+                }
+            }
+        }
+        return clientIp;
+    }
+
+    private Mono<Void> onForbidden(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.FORBIDDEN);
+        response.getHeaders().add("Content-Type", "application/json");
+
+        String errorBody = String.format("{\"error\": \"Access denied\", \"status\": %d}", HttpStatus.FORBIDDEN.value());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(errorBody.getBytes())));
+    }
+
+    @Override
+    public int getOrder() {
+        return -150; // Before JWT auth (-100): blocked networks never cost a token verification
+    }
+}
@@ -0,0 +1,31 @@
+package com.gn.reminder.gateway.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client IP allow/block lists (gateway.ip-access), as IPv4/IPv6 CIDR blocks or single addresses.
+ * The most specific matching block decides; an address listed identically in both lists is allowed.
+ * Addresses that match nothing are allowed.
+ *
+ * The client address is the socket peer. Only when the peer is a trusted proxy is X-Forwarded-For read,
+ * right to left, skipping trusted proxies; entries further left are client-supplied and never trusted.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.ip-access")
+public class IpAccessProperties {
+
+    private boolean enabled = true;
+
+    // e.g. 10.0.0.0/8 to exempt internal callers from a broader block
+    private List<String> allow = new ArrayList<>();
+
+    private List<String> block = new ArrayList<>();
+
+    // Load balancers/proxies in front of the gateway, e.g. the ALB subnets; empty = use the socket peer only
+    private List<String> trustedProxies = new ArrayList<>();
+}
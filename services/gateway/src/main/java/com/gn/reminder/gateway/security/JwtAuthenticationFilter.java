@@ -1,10 +1,12 @@
 package com.gn.reminder.gateway.security;
 
-import java.util.List;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -18,17 +20,34 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
+    /**
+     * Exchange attribute holding the verified TokenInfo, for filters that must not trust client headers
+     */
+    public static final String TOKEN_INFO_ATTRIBUTE = HybridJwtValidator.TokenInfo.class.getName();
 
     private final HybridJwtValidator hybridJwtValidator;
+    private final AuthFailureReporter authFailureReporter;
+    private final AuthPathProperties authPathProperties;
+
+    // Public/authenticated path rules from gateway.auth, recompiled on config refresh
+    private volatile PathRuleMatcher pathRules;
+
+    @PostConstruct
+    public void init() {
+        this.pathRules = PathRuleMatcher.compile(
+                authPathProperties.getPublicPaths(), authPathProperties.getAuthenticatedPaths());
+        log.info("Loaded {} public and {} authenticated path rules",
+                authPathProperties.getPublicPaths().size(), authPathProperties.getAuthenticatedPaths().size());
+    }
 
-    // Public endpoints that don't require authentication
-    private static final List<String> PUBLIC_ENDPOINTS = List.of(
-            "/api/v1/auth/signup",
-            "/api/v1/auth/login",
-            "/api/v1/auth/oauth2",  // OAuth2 callback endpoints
-            "/eureka",
-            "/actuator"
-    );
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        try {
+            init();
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid path rules, keeping current rules: {}", e.getMessage());
+        }
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -47,38 +66,39 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         String authHeader = request.getHeaders().getFirst("Authorization");
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Missing or invalid Authorization header for path: {}", path);
+            authFailureReporter.recordMissingHeader(path);
             return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
         }
 
         String token = authHeader.substring(7);
 
-        try {
-            // Validate token using hybrid validator (supports both custom and Keycloak JWT)
-            HybridJwtValidator.TokenInfo tokenInfo = hybridJwtValidator.validateToken(token);
-
-            log.debug("Authenticated user: {} ({}) via {} JWT", 
-                     tokenInfo.getUsername(), tokenInfo.getUserId(), tokenInfo.getTokenType());
-
-            // Add user context to request headers for downstream services
-            ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                    .header("X-Auth-User-Id", tokenInfo.getUserId())
-                    .header("X-Auth-Username", tokenInfo.getUsername())
-                    .header("X-Auth-Email", tokenInfo.getEmail())
-                    .header("X-Auth-Token-Type", tokenInfo.getTokenType().toString())
-                    .build();
-
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
-        } catch (Exception e) {
-            log.error("JWT validation error for path: {}", path, e);
-            return onError(exchange, "Authentication failed", HttpStatus.UNAUTHORIZED);
-        }
+        // Validate token using hybrid validator (supports both custom and Keycloak JWT)
+        return hybridJwtValidator.validateToken(token)
+                .map(tokenInfo -> {
+                    log.debug("Authenticated user: {} ({}) via {} JWT",
+                             tokenInfo.getUsername(), tokenInfo.getUserId(), tokenInfo.getTokenType());
+
+                    // Add user context to request headers for downstream services
+                    ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
+                            .header("X-Auth-User-Id", tokenInfo.getUserId())
+                            .header("X-Auth-Username", tokenInfo.getUsername())
+                            .header("X-Auth-Email", tokenInfo.getEmail())
+                            .header("X-Auth-Token-Type", tokenInfo.getTokenType().toString())
+                            .build();
+
+                    exchange.getAttributes().put(TOKEN_INFO_ATTRIBUTE, tokenInfo);
+                    return exchange.mutate().request(modifiedRequest).build();
+                })
+                .onErrorResume(e -> {
+                    authFailureReporter.recordInvalidToken(path, e);
+                    return onError(exchange, "Authentication failed", HttpStatus.UNAUTHORIZED)
+                            .then(Mono.<ServerWebExchange>empty());
+                })
+                .flatMap(chain::filter);
     }
 
     private boolean isPublicEndpoint(String path) {
-        return PUBLIC_ENDPOINTS.stream()
-                .anyMatch(path::startsWith);
+        return pathRules.isPublic(path);
     }
 
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
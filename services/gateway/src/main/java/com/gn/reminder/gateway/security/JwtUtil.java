@@ -1,7 +1,9 @@
 package com.gn.reminder.gateway.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -17,15 +19,53 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    // Built once on first use; parser instances are immutable and thread-safe
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    /**
+     * Verify signature and expiry with a single parse and return the claims the gateway needs.
+     * Throws JwtException if the token is malformed, has a bad signature, is expired or has no expiry.
+     */
+    public VerifiedJwt verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new MalformedJwtException("Token is empty");
+        }
+        Claims claims = getParser().parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        return new VerifiedJwt(
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                claims.get("email", String.class),
+                claims.get("tier", String.class),
+                expiration.toInstant());
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -51,21 +91,13 @@ public class JwtUtil {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            // The parser rejects expired tokens, so one parse covers signature and expiry
+            verify(token);
+            return true;
         } catch (Exception e) {
             return false;
         }
     }
 }
-
@@ -0,0 +1,154 @@
+package com.gn.reminder.gateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keycloak signing keys indexed by kid.
+ * The JWK set is prefetched at startup and refreshed in the background with a non-blocking WebClient,
+ * so token verification only ever reads the in-memory index.
+ * A token with an unknown kid (key rotation) triggers a refetch, at most once per min-refetch-interval.
+ */
+@Slf4j
+@Component
+public class KeycloakJwkStore {
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final boolean keycloakEnabled;
+    private final Duration refreshInterval;
+    private final Duration minRefetchInterval;
+    private final Duration fetchTimeout;
+
+    private volatile Map<String, JWK> keysByKid = Map.of();
+    private volatile Mono<Map<String, JWK>> inFlightFetch;
+    // Last refetch triggered by an unknown kid; background refreshes do not count against the rate limit
+    private final AtomicLong lastFetchNanos;
+    private Disposable refresher;
+
+    public KeycloakJwkStore(
+            WebClient.Builder webClientBuilder,
+            @Value("${keycloak.jwk-set-uri:http://localhost:9191/realms/realm-service/protocol/openid-connect/certs}") String jwkSetUri,
+            @Value("${keycloak.enabled:true}") boolean keycloakEnabled,
+            @Value("${keycloak.jwks.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${keycloak.jwks.min-refetch-interval:30s}") Duration minRefetchInterval,
+            @Value("${keycloak.jwks.fetch-timeout:5s}") Duration fetchTimeout) {
+        this.webClient = webClientBuilder.build();
+        this.jwkSetUri = jwkSetUri;
+        this.keycloakEnabled = keycloakEnabled;
+        this.refreshInterval = refreshInterval;
+        this.minRefetchInterval = minRefetchInterval;
+        this.fetchTimeout = fetchTimeout;
+        // The first unknown kid may refetch at once, even right after startup
+        this.lastFetchNanos = new AtomicLong(System.nanoTime() - minRefetchInterval.toNanos());
+    }
+
+    /**
+     * Prefetch the JWK set and keep refreshing it in the background
+     */
+    @PostConstruct
+    public void start() {
+        if (!keycloakEnabled) {
+            return;
+        }
+        refresher = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> fetch())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    /**
+     * JWK source for NimbusReactiveJwtDecoder: the key matching the token's kid,
+     * or all known keys when the token carries no kid
+     */
+    public Flux<JWK> keysFor(SignedJWT jwt) {
+        String kid = jwt.getHeader().getKeyID();
+        if (kid == null) {
+            return Flux.fromIterable(keysByKid.values());
+        }
+        JWK key = keysByKid.get(kid);
+        if (key != null) {
+            return Flux.just(key);
+        }
+        return refetchForUnknownKid(kid)
+                .flatMapMany(keys -> Mono.justOrEmpty(keys.get(kid)));
+    }
+
+    /**
+     * Whether a token with this kid can be verified now; without a kid, whether any key is known
+     */
+    public boolean hasKey(String kid) {
+        Map<String, JWK> keys = keysByKid;
+        return kid == null ? !keys.isEmpty() : keys.containsKey(kid);
+    }
+
+    private Mono<Map<String, JWK>> refetchForUnknownKid(String kid) {
+        long now = System.nanoTime();
+        long last = lastFetchNanos.get();
+        if (now - last < minRefetchInterval.toNanos() || !lastFetchNanos.compareAndSet(last, now)) {
+            // Rate limited: join a fetch that is already running, otherwise answer from the current keys
+            Mono<Map<String, JWK>> running = inFlightFetch;
+            return running != null ? running : Mono.just(keysByKid);
+        }
+        log.info("Unknown Keycloak key id {}, refetching JWK set", kid);
+        return fetch();
+    }
+
+    private Mono<Map<String, JWK>> fetch() {
+        Mono<Map<String, JWK>> fetch = webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(fetchTimeout)
+                .map(this::indexByKid)
+                .doOnNext(keys -> {
+                    keysByKid = keys;
+                    log.debug("Loaded {} Keycloak signing keys from {}", keys.size(), jwkSetUri);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to fetch Keycloak JWK set from {}: {}", jwkSetUri, e.getMessage());
+                    return Mono.just(keysByKid);
+                })
+                .doFinally(signal -> inFlightFetch = null)
+                .cache();
+        inFlightFetch = fetch;
+        return fetch;
+    }
+
+    private Map<String, JWK> indexByKid(String json) {
+        try {
+            Map<String, JWK> keys = new HashMap<>();
+            for (JWK jwk : JWKSet.parse(json).getKeys()) {
+                if (jwk.getKeyID() != null && (jwk.getKeyUse() == null || KeyUse.SIGNATURE.equals(jwk.getKeyUse()))) {
+                    keys.put(jwk.getKeyID(), jwk);
+                }
+            }
+            return Map.copyOf(keys);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JWK set: " + e.getMessage(), e);
+        }
+    }
+}
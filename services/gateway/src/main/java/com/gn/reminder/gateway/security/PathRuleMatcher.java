@@ -0,0 +1,141 @@
+package com.gn.reminder.gateway.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Public/authenticated path rules compiled into a character trie.
+ *
+ * A rule is either an exact path (/api/v1/auth/login, also matching a trailing slash) or a prefix ending
+ * in /** that matches the path itself and everything below it at segment boundaries (/actuator/** matches
+ * /actuator and /actuator/health but not /actuatorx). The most specific rule wins; for the same pattern
+ * in both lists authenticated wins. Paths that match no rule require authentication.
+ *
+ * A lookup walks the path once with charAt and allocates nothing, so its cost depends on path length only.
+ *
+ * matches applies the same pattern syntax to one rule at a time, for the ordered, route-scoped rule lists
+ * of the response cache, request coalescing and load shedding.
+ */
+public final class PathRuleMatcher {
+
+    private static final byte NONE = 0;
+    private static final byte PUBLIC = 1;
+    private static final byte AUTHENTICATED = 2;
+
+    private final Node root;
+
+    private PathRuleMatcher(Node root) {
+        this.root = root;
+    }
+
+    static PathRuleMatcher compile(List<String> publicPaths, List<String> authenticatedPaths) {
+        Node root = new Node();
+        publicPaths.forEach(pattern -> add(root, pattern, PUBLIC));
+        authenticatedPaths.forEach(pattern -> add(root, pattern, AUTHENTICATED));
+        return new PathRuleMatcher(root);
+    }
+
+    boolean isPublic(String path) {
+        Node node = root;
+        byte decision = NONE;
+        int length = path.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '/') {
+                // node now stands for path[0, i), which ends at a segment boundary
+                if (i == length - 1 && node.exact != NONE) {
+                    return node.exact == PUBLIC;
+                }
+                if (node.prefix != NONE) {
+                    decision = node.prefix;
+                }
+            }
+            node = node.child(c);
+            if (node == null) {
+                return decision == PUBLIC;
+            }
+        }
+
+        if (node.exact != NONE) {
+            return node.exact == PUBLIC;
+        }
+        if (node.prefix != NONE) {
+            decision = node.prefix;
+        }
+        return decision == PUBLIC;
+    }
+
+    /**
+     * Exact path (a trailing slash allowed) or a prefix ending in /** matched at segment boundaries; null matches all
+     */
+    public static boolean matches(String pattern, String path) {
+        if (pattern == null) {
+            return true;
+        }
+        if (pattern.endsWith("/**")) {
+            String prefix = pattern.substring(0, pattern.length() - 3);
+            return path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+        }
+        return path.equals(pattern) || (path.length() == pattern.length() + 1
+                && path.startsWith(pattern) && path.endsWith("/"));
+    }
+
+    private static void add(Node root, String pattern, byte rule) {
+        String path = pattern.trim();
+        boolean prefix = path.endsWith("/**");
+        if (prefix) {
+            path = path.substring(0, path.length() - 3);
+        }
+        boolean valid = (path.isEmpty() ? prefix : path.startsWith("/"))
+                && !path.endsWith("/") && path.indexOf('*') < 0;
+        if (!valid) {
+            throw new IllegalArgumentException(
+                    "Invalid path rule " + pattern + ": use an exact path or a prefix ending in /**");
+        }
+
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.childForBuild(path.charAt(i));
+        }
+        if (prefix) {
+            node.prefix = (byte) Math.max(node.prefix, rule);
+        } else {
+            node.exact = (byte) Math.max(node.exact, rule);
+        }
+    }
+
+    private static final class Node {
+        // Sorted labels and their children; arrays keep lookups free of boxing and iterators
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        byte exact = NONE;
+        byte prefix = NONE;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childForBuild(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] grownLabels = new char[labels.length + 1];
+            Node[] grownChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, grownLabels, 0, insertAt);
+            System.arraycopy(children, 0, grownChildren, 0, insertAt);
+            grownLabels[insertAt] = c;
+            grownChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, grownLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, grownChildren, insertAt + 1, children.length - insertAt);
+            labels = grownLabels;
+            children = grownChildren;
+            return child;
+        }
+    }
+}
@@ -1,52 +1,128 @@
 package com.gn.reminder.gateway.security;
 
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
-import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import com.gn.reminder.gateway.ratelimit.Bandwidth;
+import com.gn.reminder.gateway.ratelimit.DistributedRateLimiter;
+import com.gn.reminder.gateway.ratelimit.HeavyHitterTracker;
+import com.gn.reminder.gateway.ratelimit.InFlightLimiter;
+import com.gn.reminder.gateway.ratelimit.RateLimitDecision;
+import com.gn.reminder.gateway.ratelimit.RateLimitPolicy;
+import com.gn.reminder.gateway.ratelimit.RateLimitPolicyProperties;
+import com.gn.reminder.gateway.ratelimit.RateLimitPolicyTable;
+import com.gn.reminder.gateway.ratelimit.RateLimitSnapshotStore;
+import com.gn.reminder.gateway.ratelimit.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Rate Limiting Filter using Resilience4j
+ * Rate Limiting Filter backed by a lock-free token bucket table
  * Limits requests per IP address or User ID (if authenticated)
  * 
  * Default: 100 requests per 60 seconds per resource (IP/User)
+ * Memory is bounded by gateway.rate-limit.max-keys; idle keys are evicted
+ * With gateway.rate-limit.distributed.enabled the limit is shared by all replicas through Redis,
+ * falling back to this replica's local limiter while Redis is unavailable
+ * Per-route/method/tier policies (gateway.rate-limit.policies) are compiled into a RateLimitPolicyTable
+ * Every request is also counted by the HeavyHitterTracker under the same key
+ * and may hold at most gateway.rate-limit.in-flight.max-per-key concurrent requests (InFlightLimiter)
+ * Limits and policies are reloaded on config refresh without losing bucket state
+ * (max-keys needs a restart); each bucket is rescaled to the new period on its next use
+ * Bucket state survives restarts through a RateLimitSnapshotStore (gateway.rate-limit.snapshot)
  * AWS-Ready: Configurable via environment variables
  */
 @Component
-@RefreshScope
 @Slf4j
 public class RateLimitingFilter implements GlobalFilter, Ordered {
 
-    private final RateLimiterRegistry rateLimiterRegistry;
-    private final ConcurrentHashMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
-    
-    @Value("${resilience4j.ratelimiter.instances.gatewayRateLimiter.limitForPeriod:100}")
-    private int limitForPeriod;
-    
-    @Value("${resilience4j.ratelimiter.instances.gatewayRateLimiter.limitRefreshPeriod:60s}")
-    private String limitRefreshPeriod;
-    
-    @Value("${resilience4j.ratelimiter.instances.gatewayRateLimiter.timeoutDuration:5s}")
-    private String timeoutDuration;
-
-    public RateLimitingFilter() {
-        // Initialize rate limiter registry
-        this.rateLimiterRegistry = RateLimiterRegistry.ofDefaults();
+    private static final String LIMIT_FOR_PERIOD = "resilience4j.ratelimiter.instances.gatewayRateLimiter.limitForPeriod";
+    private static final String LIMIT_REFRESH_PERIOD = "resilience4j.ratelimiter.instances.gatewayRateLimiter.limitRefreshPeriod";
+    private static final String TIMEOUT_DURATION = "resilience4j.ratelimiter.instances.gatewayRateLimiter.timeoutDuration";
+    // Answer over-limit requests with 429 at once instead of parking them for up to timeoutDuration
+    private static final String REJECT_FAST = "gateway.rate-limit.reject-fast";
+
+    private final DistributedRateLimiter distributedRateLimiter;
+    private final RateLimitPolicyProperties policyProperties;
+    private final HeavyHitterTracker heavyHitterTracker;
+    private final InFlightLimiter inFlightLimiter;
+    private final RateLimitSnapshotStore snapshotStore;
+    private final Environment environment;
+    private TokenBucketRateLimiter rateLimiter;
+
+    // Swapped as a whole on refresh, so every request sees either the old or the new limits
+    private volatile RateLimitPolicyTable policyTable;
+
+    @Value("${gateway.rate-limit.max-keys:1048576}")
+    private int maxKeys;
+
+    public RateLimitingFilter(ObjectProvider<DistributedRateLimiter> distributedRateLimiter,
+                              RateLimitPolicyProperties policyProperties,
+                              HeavyHitterTracker heavyHitterTracker,
+                              InFlightLimiter inFlightLimiter,
+                              RateLimitSnapshotStore snapshotStore,
+                              Environment environment) {
+        this.distributedRateLimiter = distributedRateLimiter.getIfAvailable();
+        this.policyProperties = policyProperties;
+        this.heavyHitterTracker = heavyHitterTracker;
+        this.inFlightLimiter = inFlightLimiter;
+        this.snapshotStore = snapshotStore;
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.policyTable = loadPolicies();
+        this.rateLimiter = new TokenBucketRateLimiter(maxKeys, policyTable.defaultPolicy().bandwidth());
+        // Runs during context startup, so restored limits are in place before Eureka registration
+        snapshotStore.attach(rateLimiter);
+
+        log.info("Rate limiter initialised with limit: {}/{} and {} policies for up to {} keys",
+                policyTable.defaultPolicy().bandwidth().limitForPeriod(), policyTable.defaultPolicy().period(),
+                policyProperties.getPolicies().size(), rateLimiter.capacity());
+    }
+
+    /**
+     * Apply changed limits after a config-server refresh (policy properties are rebound by then).
+     * Bucket state is kept; an invalid configuration leaves the current limits in place.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        try {
+            RateLimitPolicyTable reloaded = loadPolicies();
+            this.policyTable = reloaded;
+            log.info("Rate limits reloaded: {}/{} and {} policies",
+                    reloaded.defaultPolicy().bandwidth().limitForPeriod(), reloaded.defaultPolicy().period(),
+                    policyProperties.getPolicies().size());
+        } catch (RuntimeException e) {
+            log.error("Invalid rate-limit configuration, keeping current limits: {}", e.getMessage());
+        }
+    }
+
+    private RateLimitPolicyTable loadPolicies() {
+        int limitForPeriod = environment.getProperty(LIMIT_FOR_PERIOD, Integer.class, 100);
+        String limitRefreshPeriod = environment.getProperty(LIMIT_REFRESH_PERIOD, "60s");
+        boolean rejectFast = environment.getProperty(REJECT_FAST, Boolean.class, false);
+        Duration timeout = rejectFast ? Duration.ZERO : parseDuration(environment.getProperty(TIMEOUT_DURATION, "5s"));
+
+        Bandwidth bandwidth = Bandwidth.of(limitForPeriod, parseDuration(limitRefreshPeriod), timeout);
+        return RateLimitPolicyTable.compile(policyProperties.getPolicies(),
+                new RateLimitPolicy(null, bandwidth, limitRefreshPeriod), timeout);
     }
 
     @Override
@@ -61,20 +137,65 @@ public class RateLimitingFilter implements GlobalFilter, Ordered {
 
         // Determine rate limit key (prefer User ID over IP)
         String rateLimitKey = getRateLimitKey(exchange);
+        RateLimitPolicy policy = resolvePolicy(exchange, path);
+        heavyHitterTracker.record(rateLimitKey);
         
-        // Get or create rate limiter for this resource
-        RateLimiter rateLimiter = getRateLimiter(rateLimitKey);
-        
-        log.debug("Rate limiting request from: {} to path: {}", rateLimitKey, path);
-
-        // Apply rate limiting
-        return Mono.just(exchange)
-                .transformDeferred(RateLimiterOperator.of(rateLimiter))
-                .flatMap(chain::filter)
-                .onErrorResume(throwable -> {
-                    log.warn("Rate limit exceeded for: {} on path: {}", rateLimitKey, path);
-                    return handleRateLimitExceeded(exchange);
-                });
+        log.debug("Rate limiting request from: {} to path: {} (policy: {})", rateLimitKey, path, policy.id());
+
+        // Reserve the in-flight slot on subscription so it is always paired with the release below
+        return Mono.defer(() -> {
+            int inFlightStripe = inFlightLimiter.tryAcquire(rateLimitKey);
+            if (inFlightStripe < 0) {
+                log.debug("In-flight limit exceeded for: {} on path: {}", rateLimitKey, path);
+                return handleTooManyInFlight(exchange);
+            }
+            return Mono.defer(() -> applyRateLimit(exchange, chain, rateLimitKey, policy, path))
+                    // Runs exactly once on completion, error or client disconnect (cancel)
+                    .doFinally(signal -> inFlightLimiter.release(inFlightStripe));
+        });
+    }
+
+    private Mono<Void> applyRateLimit(ServerWebExchange exchange, GatewayFilterChain chain,
+                                      String rateLimitKey, RateLimitPolicy policy, String path) {
+        return acquire(policy.bucketKey(rateLimitKey), policy).flatMap(decision -> {
+            if (!decision.allowed()) {
+                log.warn("Rate limit exceeded for: {} on path: {}", rateLimitKey, path);
+                return handleRateLimitExceeded(exchange, policy, decision);
+            }
+
+            // Permit reserved within timeoutDuration: wait for it without holding a thread
+            if (decision.waitNanos() > 0) {
+                return Mono.delay(Duration.ofNanos(decision.waitNanos()))
+                        .then(Mono.defer(() -> chain.filter(exchange)));
+            }
+
+            return chain.filter(exchange);
+        });
+    }
+
+    /**
+     * Resolve the policy for this request from its route, method, path and the caller's tier claim
+     */
+    private RateLimitPolicy resolvePolicy(ServerWebExchange exchange, String path) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        HybridJwtValidator.TokenInfo tokenInfo = exchange.getAttribute(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE);
+        return policyTable.resolve(
+                route != null ? route.getId() : null,
+                exchange.getRequest().getMethod().name(),
+                tokenInfo != null ? tokenInfo.getTier() : null,
+                path);
+    }
+
+    /**
+     * Take a permit from the cluster-wide limiter when enabled, otherwise (or when Redis is down) locally
+     */
+    private Mono<RateLimitDecision> acquire(String bucketKey, RateLimitPolicy policy) {
+        if (distributedRateLimiter == null) {
+            return Mono.just(rateLimiter.tryAcquire(bucketKey, policy.bandwidth()));
+        }
+        return distributedRateLimiter.tryAcquire(bucketKey, policy.bandwidth())
+                .onErrorResume(DistributedRateLimiter.RedisUnavailableException.class,
+                        e -> Mono.fromSupplier(() -> rateLimiter.tryAcquire(bucketKey, policy.bandwidth())));
     }
 
     /**
@@ -150,44 +271,50 @@ public class RateLimitingFilter implements GlobalFilter, Ordered {
         }
     }
 
-    /**
-     * Get or create rate limiter for a specific resource
-     */
-    private RateLimiter getRateLimiter(String key) {
-        return rateLimiters.computeIfAbsent(key, k -> {
-            RateLimiterConfig config = RateLimiterConfig.custom()
-                    .limitForPeriod(limitForPeriod)
-                    .limitRefreshPeriod(parseDuration(limitRefreshPeriod))
-                    .timeoutDuration(parseDuration(timeoutDuration))
-                    .build();
-            
-            RateLimiter limiter = rateLimiterRegistry.rateLimiter(k, config);
-            
-            log.info("Created rate limiter for: {} with limit: {}/{}", 
-                    k, limitForPeriod, limitRefreshPeriod);
-            
-            return limiter;
-        });
-    }
-
     /**
      * Handle rate limit exceeded error
+     * Retry-After: seconds until the next permit is available
+     * X-RateLimit-Reset: seconds until the bucket is full again
      */
-    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange) {
+    private Mono<Void> handleRateLimitExceeded(ServerWebExchange exchange, RateLimitPolicy policy,
+                                               RateLimitDecision decision) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
         response.getHeaders().add("Content-Type", "application/json");
-        response.getHeaders().add("X-RateLimit-Limit", String.valueOf(limitForPeriod));
-        response.getHeaders().add("X-RateLimit-Reset", limitRefreshPeriod);
+        response.getHeaders().add("Retry-After", String.valueOf(toSecondsCeil(decision.retryAfterNanos())));
+        response.getHeaders().add("X-RateLimit-Limit", String.valueOf(policy.bandwidth().limitForPeriod()));
+        response.getHeaders().add("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.getHeaders().add("X-RateLimit-Reset", String.valueOf(toSecondsCeil(decision.resetNanos())));
         
         String errorBody = String.format(
                 "{\"error\": \"Rate limit exceeded\", \"message\": \"Too many requests. Limit: %d requests per %s\", \"status\": 429}",
-                limitForPeriod, limitRefreshPeriod
+                policy.bandwidth().limitForPeriod(), policy.period()
         );
         
         return response.writeWith(Mono.just(response.bufferFactory().wrap(errorBody.getBytes())));
     }
 
+    /**
+     * Handle a client that already has max-per-key requests in flight
+     */
+    private Mono<Void> handleTooManyInFlight(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().add("Content-Type", "application/json");
+        response.getHeaders().add("Retry-After", "1");
+
+        String errorBody = String.format(
+                "{\"error\": \"Too many concurrent requests\", \"message\": \"Limit: %d requests in flight\", \"status\": 429}",
+                inFlightLimiter.getMaxPerKey()
+        );
+
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(errorBody.getBytes())));
+    }
+
+    private static long toSecondsCeil(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
     @Override
     public int getOrder() {
         return -50; // Execute after JWT auth filter (-100) but before other filters
@@ -0,0 +1,45 @@
+package com.gn.reminder.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived, bounded cache of token digests that recently failed verification.
+ * A client retrying an expired or forged token gets a 401 without another signature check.
+ * Metrics are published as cache.* meters with cache=jwt.rejected-tokens
+ */
+@Component
+public class RejectedTokenCache {
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> cache;
+
+    public RejectedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.negative-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.negative-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.negative-cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.rejected-tokens");
+    }
+
+    public boolean isRejected(String tokenDigest) {
+        return enabled && cache.getIfPresent(tokenDigest) != null;
+    }
+
+    public void put(String tokenDigest) {
+        if (enabled) {
+            cache.put(tokenDigest, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.gn.reminder.gateway.security;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Raised for a token found in the RejectedTokenCache.
+ * Carries no stack trace so that retry storms of bad tokens stay cheap.
+ */
+class RejectedTokenException extends JwtException {
+
+    RejectedTokenException() {
+        super("Token was recently rejected");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -5,8 +5,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
@@ -19,9 +20,6 @@ import java.util.List;
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
-    @Value("${keycloak.jwk-set-uri:http://localhost:9191/realms/realm-service/protocol/openid-connect/certs}")
-    private String jwkSetUri;
-
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
         http
@@ -51,12 +49,18 @@ public class SecurityConfig {
     }
 
     /**
-     * JwtDecoder for Keycloak tokens
-     * Uses the JWK Set URI from Keycloak to validate OAuth2/OIDC tokens
+     * Non-blocking JwtDecoder for Keycloak tokens
+     * Resolves signing keys by kid from the background-refreshed KeycloakJwkStore,
+     * so decoding never waits on Keycloak from the event loop.
+     * Validates timestamps and the realm issuer (keycloak.issuer-uri, by default <auth-server-url>/realms/<realm>)
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    public ReactiveJwtDecoder jwtDecoder(
+            KeycloakJwkStore keycloakJwkStore,
+            @Value("${keycloak.issuer-uri:${keycloak.auth-server-url:http://localhost:9191}/realms/${keycloak.realm:realm-service}}") String issuerUri) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(keycloakJwkStore::keysFor).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
     }
 }
 
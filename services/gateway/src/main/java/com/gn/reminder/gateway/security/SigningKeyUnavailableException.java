@@ -0,0 +1,15 @@
+package com.gn.reminder.gateway.security;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Raised when a Keycloak token cannot be verified because its signing key is not (yet) in the KeycloakJwkStore,
+ * e.g. during a key rotation or after a failed JWK set fetch. The token may well be valid, so unlike other
+ * JwtExceptions it is never put in the RejectedTokenCache.
+ */
+class SigningKeyUnavailableException extends JwtException {
+
+    SigningKeyUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
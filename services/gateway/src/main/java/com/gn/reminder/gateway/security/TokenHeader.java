@@ -0,0 +1,55 @@
+package com.gn.reminder.gateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.MalformedJwtException;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * JOSE header of a compact JWS, decoded without touching the payload or the signature.
+ * Used to route a token to the one verifier that can check it.
+ */
+public record TokenHeader(String alg, String kid) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Decode the first segment of a compact JWS.
+     * Throws MalformedJwtException if the token is not header.payload.signature or the header is not JSON.
+     */
+    public static TokenHeader parse(String token) {
+        if (token == null) {
+            throw new MalformedJwtException("Token is empty");
+        }
+        int firstDot = token.indexOf('.');
+        if (firstDot <= 0 || token.indexOf('.', firstDot + 1) < 0) {
+            throw new MalformedJwtException("Token is not a compact JWS");
+        }
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token.substring(0, firstDot));
+            JsonNode header = MAPPER.readTree(json);
+            String alg = header.path("alg").asText(null);
+            if (alg == null) {
+                throw new MalformedJwtException("Token header has no alg");
+            }
+            return new TokenHeader(alg, header.path("kid").asText(null));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new MalformedJwtException("Token header is not valid base64url JSON");
+        }
+    }
+
+    /**
+     * HS256/384/512 - custom tokens signed by user-service
+     */
+    public boolean isHmac() {
+        return alg.startsWith("HS");
+    }
+
+    /**
+     * RS*, PS* and ES* - tokens signed by Keycloak and verified against its JWK set
+     */
+    public boolean isAsymmetric() {
+        return alg.startsWith("RS") || alg.startsWith("PS") || alg.startsWith("ES");
+    }
+}
@@ -0,0 +1,15 @@
+package com.gn.reminder.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a custom JWT whose signature and expiry have been verified,
+ * produced from a single parse of the token
+ */
+public record VerifiedJwt(
+        String subject,
+        String userId,
+        String email,
+        String tier,
+        Instant expiresAt) {
+}
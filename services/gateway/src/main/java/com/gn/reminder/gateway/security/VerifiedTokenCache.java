@@ -0,0 +1,90 @@
+package com.gn.reminder.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already verified tokens, keyed by token digest.
+ * Entries expire at the token's own exp claim (capped by jwt.cache.max-ttl),
+ * so a repeat request skips signature verification and claim parsing.
+ * Hit/miss/eviction metrics are published as cache.* meters with cache=jwt.verified-tokens
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final Duration maxTtl;
+    private final Cache<String, HybridJwtValidator.TokenInfo> cache;
+
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.cache.enabled:true}") boolean enabled,
+            @Value("${jwt.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.cache.max-ttl:15m}") Duration maxTtl) {
+        this.enabled = enabled;
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Return the cached token info, or null if the token has not been verified recently
+     */
+    public HybridJwtValidator.TokenInfo get(String tokenDigest) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(tokenDigest);
+    }
+
+    /**
+     * Remember a verified token until it expires. Tokens without an expiry are not cached.
+     */
+    public void put(String tokenDigest, HybridJwtValidator.TokenInfo tokenInfo) {
+        if (!enabled || tokenInfo.getExpiresAt() == null) {
+            return;
+        }
+        if (tokenInfo.getExpiresAt().isAfter(Instant.now())) {
+            cache.put(tokenDigest, tokenInfo);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expire each entry at its token's exp claim, never later than maxTtl after insertion
+     */
+    private class TokenExpiry implements Expiry<String, HybridJwtValidator.TokenInfo> {
+
+        @Override
+        public long expireAfterCreate(String key, HybridJwtValidator.TokenInfo value, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), value.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, HybridJwtValidator.TokenInfo value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, HybridJwtValidator.TokenInfo value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
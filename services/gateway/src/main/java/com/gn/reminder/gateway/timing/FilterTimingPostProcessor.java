@@ -0,0 +1,76 @@
+package com.gn.reminder.gateway.timing;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wraps every GlobalFilter bean (the gateway's own and Spring Cloud Gateway's) in a class-based proxy that
+ * opens a FilterTimings span when filter() is invoked. The proxy keeps the bean's type, so filters injected
+ * into each other by class still resolve. Exchanges not started by RequestTimingFilter are passed through.
+ */
+@Component
+@ConditionalOnProperty(prefix = "gateway.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FilterTimingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof GlobalFilter) || bean instanceof RequestTimingFilter
+                || AopUtils.isAopProxy(bean) || !isProxyable(bean.getClass())) {
+            return bean;
+        }
+
+        NameMatchMethodPointcutAdvisor advisor =
+                new NameMatchMethodPointcutAdvisor(new TimingInterceptor(ClassUtils.getUserClass(bean).getSimpleName()));
+        advisor.setMappedName("filter");
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(advisor);
+        return factory.getProxy();
+    }
+
+    // A subclass proxy cannot override final methods, which would then run against the proxy's empty fields
+    private static boolean isProxyable(Class<?> type) {
+        if (Modifier.isFinal(type.getModifiers())) {
+            return false;
+        }
+        return Arrays.stream(type.getMethods())
+                .noneMatch(method -> Modifier.isFinal(method.getModifiers())
+                        && !Modifier.isStatic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class);
+    }
+
+    private record TimingInterceptor(String filter) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object[] arguments = invocation.getArguments();
+            if (arguments.length != 2 || !(arguments[0] instanceof ServerWebExchange exchange)) {
+                return invocation.proceed();
+            }
+            FilterTimings timings = exchange.getAttribute(FilterTimings.ATTRIBUTE);
+            if (timings == null) {
+                return invocation.proceed();
+            }
+
+            FilterTimings.Span span = timings.enter(filter, System.nanoTime());
+            Object result = invocation.proceed();
+            if (result instanceof Mono<?> mono) {
+                return mono.doFinally(signal -> timings.close(span, System.nanoTime()));
+            }
+            timings.close(span, System.nanoTime());
+            return result;
+        }
+    }
+}
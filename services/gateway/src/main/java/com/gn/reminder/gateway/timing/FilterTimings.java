@@ -0,0 +1,125 @@
+package com.gn.reminder.gateway.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Where one exchange's time went, filter by filter.
+ *
+ * A global filter's time runs from its invocation until the next filter is invoked or, when it does not
+ * call the chain (a rejection, a cache hit, a routing filter), until its Mono terminates. So it covers the
+ * filter's own work, including async work such as token verification, but not the rest of the chain; for
+ * NettyRoutingFilter it is the upstream call up to the response headers.
+ */
+final class FilterTimings {
+
+    static final String ATTRIBUTE = FilterTimings.class.getName();
+
+    // Server-Timing metric per filter class; other filters only get timers
+    private static final Map<String, String> SERVER_TIMING_NAMES = Map.of(
+            "JwtAuthenticationFilter", "auth",
+            "RateLimitingFilter", "ratelimit",
+            "NettyRoutingFilter", "upstream",
+            "HedgingFilter", "upstream");
+    private static final String[] SERVER_TIMING_ORDER = {"auth", "ratelimit", "upstream"};
+
+    interface Recorder {
+        void record(String filter, long nanos);
+    }
+
+    private final Recorder recorder;
+    private final long startNanos;
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private volatile Span current;
+
+    FilterTimings(Recorder recorder, long startNanos) {
+        this.recorder = recorder;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Open the span of a filter being invoked, closing the previous filter's span
+     */
+    Span enter(String filter, long nowNanos) {
+        Span previous = current;
+        Span span = new Span(filter, nowNanos);
+        current = span;
+        if (previous != null) {
+            close(previous, nowNanos);
+        }
+        return span;
+    }
+
+    /**
+     * Close a span if it is still open; a span is recorded exactly once
+     */
+    void close(Span span, long nowNanos) {
+        if (span.closed.compareAndSet(false, true)) {
+            long nanos = nowNanos - span.startNanos;
+            durations.merge(span.filter, nanos, Long::sum);
+            recorder.record(span.filter, nanos);
+        }
+    }
+
+    void closeCurrent(long nowNanos) {
+        Span span = current;
+        if (span != null) {
+            close(span, nowNanos);
+        }
+    }
+
+    long totalNanos(long nowNanos) {
+        return nowNanos - startNanos;
+    }
+
+    /**
+     * Server-Timing value, e.g. "auth;dur=1.2, ratelimit;dur=0.1, upstream;dur=35.0, total;dur=37.4".
+     * A span still open (a filter writing the response itself) counts up to now.
+     */
+    String serverTiming(long nowNanos) {
+        Map<String, Long> byMetric = new LinkedHashMap<>();
+        for (String metric : SERVER_TIMING_ORDER) {
+            byMetric.put(metric, 0L);
+        }
+        durations.forEach((filter, nanos) -> {
+            String metric = SERVER_TIMING_NAMES.get(filter);
+            if (metric != null) {
+                byMetric.merge(metric, nanos, Long::sum);
+            }
+        });
+        Span open = current;
+        if (open != null && !open.closed.get() && SERVER_TIMING_NAMES.containsKey(open.filter)) {
+            byMetric.merge(SERVER_TIMING_NAMES.get(open.filter), nowNanos - open.startNanos, Long::sum);
+        }
+
+        StringBuilder header = new StringBuilder();
+        byMetric.forEach((metric, nanos) -> {
+            if (nanos > 0) {
+                append(header, metric, nanos);
+            }
+        });
+        append(header, "total", totalNanos(nowNanos));
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String metric, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+
+    static final class Span {
+        private final String filter;
+        private final long startNanos;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Span(String filter, long startNanos) {
+            this.filter = filter;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.gn.reminder.gateway.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-route and per-filter latency timers, and the optional Server-Timing response header.
+ *
+ * Runs first, so its timer covers the whole exchange; FilterTimingPostProcessor times each global filter
+ * against the FilterTimings this filter attaches to the exchange. Timers publish the configured percentiles,
+ * which Micrometer computes from HdrHistogram-based sliding windows (2 minutes by default).
+ *
+ * Metrics: gateway.route.latency (tags route, outcome), gateway.filter.latency (tag filter)
+ */
+@Component
+public class RequestTimingFilter implements GlobalFilter, Ordered {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final TimingProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> filterTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> routeTimers = new ConcurrentHashMap<>();
+
+    public RequestTimingFilter(TimingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        FilterTimings timings = new FilterTimings(this::recordFilter, System.nanoTime());
+        exchange.getAttributes().put(FilterTimings.ATTRIBUTE, timings);
+        if (properties.isServerTimingHeader()) {
+            exchange.getResponse().beforeCommit(() -> {
+                exchange.getResponse().getHeaders().set(SERVER_TIMING_HEADER, timings.serverTiming(System.nanoTime()));
+                return Mono.empty();
+            });
+        }
+
+        return chain.filter(exchange).doFinally(signal -> {
+            long now = System.nanoTime();
+            timings.closeCurrent(now);
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (route != null) {
+                routeTimer(route.getId(), outcome(exchange.getResponse().getStatusCode()))
+                        .record(timings.totalNanos(now), TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void recordFilter(String filter, long nanos) {
+        filterTimers.computeIfAbsent(filter, name -> timer("gateway.filter.latency", "filter", name))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer routeTimer(String routeId, String outcome) {
+        return routeTimers.computeIfAbsent(routeId + '|' + outcome,
+                key -> timer("gateway.route.latency", "route", routeId, "outcome", outcome));
+    }
+
+    private Timer timer(String name, String... tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(properties.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status == null) {
+            return "UNKNOWN";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        return "SUCCESS";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE; // Before IP access (-150), so rejections are timed too
+    }
+}
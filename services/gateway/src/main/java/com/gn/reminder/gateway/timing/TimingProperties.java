@@ -0,0 +1,27 @@
+package com.gn.reminder.gateway.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-filter and per-route latency timers and the Server-Timing header (gateway.timing)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.timing")
+public class TimingProperties {
+
+    private boolean enabled = true;
+
+    // Client-side percentiles published with each timer (visible at /actuator/metrics); read when a timer is first used
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.95, 0.99));
+
+    // Also publish histogram buckets, for registries that aggregate percentiles across instances
+    private boolean percentileHistogram = false;
+
+    // Add Server-Timing (auth, ratelimit, upstream, total) to responses; exposes internal timings, so off by default
+    private boolean serverTimingHeader = false;
+}
@@ -0,0 +1,48 @@
+-- Cluster-wide token bucket shared by all gateway replicas.
+-- Grants up to ARGV[3] tokens in one call so replicas can lease small batches locally.
+--
+-- KEYS[1]  bucket hash (fields: tokens, ts)
+-- ARGV[1]  bucket capacity (limitForPeriod)
+-- ARGV[2]  milliseconds to refill one token
+-- ARGV[3]  tokens requested
+--
+-- Returns {granted, tokens left in bucket, milliseconds until the next token when nothing was granted}
+
+local key = KEYS[1]
+local capacity = tonumber(ARGV[1])
+local interval = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+-- Redis server time keeps every replica on the same clock
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', key, 'tokens', 'ts')
+local tokens = tonumber(state[1])
+local ts = tonumber(state[2])
+if tokens == nil or ts == nil then
+  tokens = capacity
+  ts = now
+end
+
+local refill = math.floor((now - ts) / interval)
+if refill > 0 then
+  tokens = math.min(capacity, tokens + refill)
+  ts = ts + refill * interval
+end
+if tokens >= capacity then
+  ts = now
+end
+
+local granted = math.min(tokens, requested)
+tokens = tokens - granted
+
+redis.call('HSET', key, 'tokens', tokens, 'ts', ts)
+redis.call('PEXPIRE', key, math.ceil((capacity - tokens) * interval) + 1000)
+
+local retry_after = 0
+if granted == 0 then
+  retry_after = math.max(1, interval - (now - ts))
+end
+
+return {granted, tokens, retry_after}
@@ -0,0 +1,151 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.security.HybridJwtValidator;
+import com.gn.reminder.gateway.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RequestCoalescingFilter Unit Tests")
+class RequestCoalescingFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("user-service")
+            .uri(URI.create("http://localhost"))
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private HttpStatus leaderStatus = HttpStatus.OK;
+    private final Sinks.Empty<Void> upstreamDone = Sinks.empty();
+    private RequestCoalescingFilter filter;
+
+    // The first call waits until upstreamDone completes; later calls answer at once
+    private final GatewayFilterChain chain = exchange -> {
+        int call = upstreamCalls.incrementAndGet();
+        Mono<Void> delay = call == 1 ? upstreamDone.asMono() : Mono.empty();
+        return delay.then(Mono.defer(() -> {
+            exchange.getResponse().setStatusCode(call == 1 ? leaderStatus : HttpStatus.OK);
+            byte[] body = ("{\"call\":" + call + "}").getBytes();
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        }));
+    };
+
+    @BeforeEach
+    void setUp() {
+        RequestCoalescingProperties.CoalescedRoute route = new RequestCoalescingProperties.CoalescedRoute();
+        route.setRouteId("user-service");
+        route.setPath("/api/v1/user/email/**");
+        route.setScope(RequestCoalescingProperties.Scope.AUTHENTICATED);
+
+        RequestCoalescingProperties properties = new RequestCoalescingProperties();
+        properties.setEnabled(true);
+        properties.setMaxWait(Duration.ofMillis(200));
+        properties.setRoutes(List.of(route));
+        filter = new RequestCoalescingFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should share one upstream call between concurrent identical requests")
+    void shouldCoalesceIdenticalRequests() {
+        // Given
+        MockServerWebExchange leader = exchange("/api/v1/user/email/john@example.com", "user-1");
+        MockServerWebExchange follower = exchange("/api/v1/user/email/john@example.com", "user-2");
+
+        // When
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+        upstreamDone.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":1}");
+    }
+
+    @Test
+    @DisplayName("Should not share an error response; each waiter calls upstream itself")
+    void shouldNotShareErrorResponses() {
+        // Given
+        leaderStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        MockServerWebExchange leader = exchange("/api/v1/user/email/john@example.com", "user-1");
+        MockServerWebExchange follower = exchange("/api/v1/user/email/john@example.com", "user-2");
+
+        // When
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        CompletableFuture<Void> followerDone = filter.filter(follower, chain).toFuture();
+        upstreamDone.tryEmitEmpty();
+        leaderDone.join();
+        followerDone.join();
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(leader.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+    }
+
+    @Test
+    @DisplayName("Should call upstream itself once the wait bound is exceeded")
+    void shouldStopWaitingAfterMaxWait() {
+        // Given
+        MockServerWebExchange leader = exchange("/api/v1/user/email/john@example.com", "user-1");
+        MockServerWebExchange follower = exchange("/api/v1/user/email/john@example.com", "user-2");
+
+        // When
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        filter.filter(follower, chain).block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("{\"call\":2}");
+        upstreamDone.tryEmitEmpty();
+        leaderDone.join();
+    }
+
+    @Test
+    @DisplayName("Should not coalesce requests for different paths or routes that are not opted in")
+    void shouldOnlyCoalesceOptedInIdenticalRequests() {
+        // Given
+        MockServerWebExchange leader = exchange("/api/v1/user/email/john@example.com", "user-1");
+        MockServerWebExchange otherPath = exchange("/api/v1/user/email/jane@example.com", "user-2");
+        MockServerWebExchange notOptedIn = exchange("/api/v1/user", "user-2");
+
+        // When
+        CompletableFuture<Void> leaderDone = filter.filter(leader, chain).toFuture();
+        filter.filter(otherPath, chain).block(Duration.ofSeconds(5));
+        filter.filter(notOptedIn, chain).block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+        upstreamDone.tryEmitEmpty();
+        leaderDone.join();
+    }
+
+    private static MockServerWebExchange exchange(String path, String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        exchange.getAttributes().put(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE,
+                HybridJwtValidator.TokenInfo.builder().userId(userId).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,145 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.security.HybridJwtValidator;
+import com.gn.reminder.gateway.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ResponseCacheFilter Unit Tests")
+class ResponseCacheFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("user-service")
+            .uri(URI.create("http://localhost"))
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private ResponseCacheFilter filter;
+
+    // Answers "call-N" in 8-byte chunks without a Content-Length, padded to the requested size
+    private int bodySize = 16;
+    private final GatewayFilterChain chain = exchange -> {
+        int call = upstreamCalls.incrementAndGet();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        String body = String.format("%-" + bodySize + "s", "call-" + call);
+        return response.writeWith(Flux.fromIterable(chunks(body, 8))
+                .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties.CachedRoute route = new ResponseCacheProperties.CachedRoute();
+        route.setRouteId("user-service");
+        route.setPath("/api/v1/user");
+        route.setTtl(Duration.ofSeconds(60));
+
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.setMaxBodyBytes(32);
+        properties.setRoutes(List.of(route));
+        filter = new ResponseCacheFilter(properties, new ResponseCache(properties), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated GET from the cache without calling upstream")
+    void shouldServeHitFromCache() {
+        // Given
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+
+        // When
+        filter.filter(first, chain).block();
+        filter.filter(second, chain).block();
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+        assertThat(second.getResponse().getBodyAsString().block())
+                .isEqualTo(first.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    @DisplayName("Should keep each user's cached responses private")
+    void shouldNotShareBetweenUsers() {
+        // Given
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+        MockServerWebExchange other = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-2");
+
+        // When
+        filter.filter(first, chain).block();
+        filter.filter(other, chain).block();
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(other.getResponse().getBodyAsString().block()).startsWith("call-2");
+    }
+
+    @Test
+    @DisplayName("Should pass a body over max-body-bytes through whole and not cache it")
+    void shouldStreamOversizedBody() {
+        // Given
+        bodySize = 64;
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+
+        // When
+        filter.filter(first, chain).block();
+        filter.filter(second, chain).block();
+
+        // Then
+        assertThat(first.getResponse().getBodyAsString().block()).hasSize(64).startsWith("call-1");
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should drop the caller's cached responses on a write to the route")
+    void shouldInvalidateOnWrite() {
+        // Given
+        filter.filter(exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1"), chain).block();
+
+        // When
+        filter.filter(exchange(MockServerHttpRequest.put("/api/v1/user"), "user-1"), chain).block();
+        MockServerWebExchange after = exchange(MockServerHttpRequest.get("/api/v1/user"), "user-1");
+        filter.filter(after, chain).block();
+
+        // Then
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+        assertThat(after.getResponse().getBodyAsString().block()).startsWith("call-3");
+    }
+
+    private static List<String> chunks(String body, int size) {
+        return IntStream.range(0, (body.length() + size - 1) / size)
+                .mapToObj(i -> body.substring(i * size, Math.min(body.length(), (i + 1) * size)))
+                .toList();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, String userId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        exchange.getAttributes().put(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE,
+                HybridJwtValidator.TokenInfo.builder().userId(userId).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gn.reminder.gateway.cache;
+
+import com.gn.reminder.gateway.cache.ResponseCache.CachedResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ResponseCache Unit Tests")
+class ResponseCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(new ResponseCacheProperties(), nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should serve a stored response until its route TTL expires")
+    void shouldExpireAfterRouteTtl() {
+        // Given
+        String key = ResponseCache.key("user-1", "user-service", "/api/v1/user");
+        cache.put("user-1", key, response("user-1", Duration.ofSeconds(60)));
+
+        // When / Then
+        assertThat(cache.get("user-1", key)).isNotNull();
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat(cache.get("user-1", key)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop only the invalidated user's responses")
+    void shouldInvalidateUser() {
+        // Given
+        String first = ResponseCache.key("user-1", "user-service", "/api/v1/user");
+        String second = ResponseCache.key("user-2", "user-service", "/api/v1/user");
+        cache.put("user-1", first, response("user-1", Duration.ofSeconds(60)));
+        cache.put("user-2", second, response("user-2", Duration.ofSeconds(60)));
+
+        // When
+        cache.invalidateUser("user-1");
+
+        // Then
+        assertThat(cache.get("user-1", first)).isNull();
+        assertThat(cache.get("user-2", second)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not store a response fetched before an invalidation")
+    void shouldRejectStaleFill() {
+        // Given
+        String key = ResponseCache.key("user-1", "user-service", "/api/v1/user");
+        CachedResponse fetchedBeforeUpdate = response("user-1", Duration.ofSeconds(60));
+
+        // When
+        cache.invalidateUser("user-1");
+        cache.put("user-1", key, fetchedBeforeUpdate);
+
+        // Then
+        assertThat(cache.get("user-1", key)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep serving an expired response as stale until stale-if-error runs out")
+    void shouldServeStaleWithinStaleIfError() {
+        // Given
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setStaleIfError(Duration.ofMinutes(5));
+        cache = new ResponseCache(properties, nanos::get);
+        String key = ResponseCache.key("user-1", "user-service", "/api/v1/user");
+        cache.put("user-1", key, response("user-1", Duration.ofSeconds(60)));
+
+        // When
+        nanos.addAndGet(Duration.ofSeconds(90).toNanos());
+
+        // Then
+        assertThat(cache.get("user-1", key)).isNull();
+        assertThat(cache.getStale("user-1", key)).isNotNull();
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertThat(cache.getStale("user-1", key)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should never serve an invalidated response as stale")
+    void shouldNotServeInvalidatedStale() {
+        // Given
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setStaleIfError(Duration.ofMinutes(5));
+        cache = new ResponseCache(properties, nanos::get);
+        String key = ResponseCache.key("user-1", "user-service", "/api/v1/user");
+        cache.put("user-1", key, response("user-1", Duration.ofSeconds(60)));
+
+        // When
+        cache.invalidateUser("user-1");
+
+        // Then
+        assertThat(cache.getStale("user-1", key)).isNull();
+    }
+
+    private CachedResponse response(String userId, Duration ttl) {
+        byte[] body = ("{\"id\":\"" + userId + "\"}").getBytes();
+        return new CachedResponse(new CapturingResponse.Captured(HttpStatus.OK, HttpHeaders.EMPTY, body),
+                ttl, cache.generation(userId));
+    }
+}
@@ -0,0 +1,117 @@
+package com.gn.reminder.gateway.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdaptiveConcurrencyLimiter Unit Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    @Test
+    @DisplayName("Should reject requests beyond the current limit")
+    void shouldRejectAtLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(5));
+
+        // When
+        for (int i = 1; i <= 5; i++) {
+            assertThat(limiter.tryAcquire()).isEqualTo(i);
+        }
+
+        // Then
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+        limiter.releaseIgnored();
+        assertThat(limiter.tryAcquire()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while latency stays at the baseline")
+    void shouldGrowWhenHealthy() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(20));
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, limiter.getLimit(), true);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency rises above the baseline")
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(100));
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, limiter.getLimit(), true);
+        }
+        int healthyLimit = limiter.getLimit();
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, limiter.getLimit(), true);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(healthyLimit / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should back off on failed requests")
+    void shouldBackOffOnFailure() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(100));
+
+        // When
+        limiter.tryAcquire();
+        limiter.release(FAST, 1, false);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(90);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should back off once for a burst of concurrent failures")
+    void shouldBackOffOncePerBurst() throws InterruptedException {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties(100));
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+        }
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.release(FAST, 20, false);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(90);
+
+        // A failure of a request sent after that backoff is a new event
+        Thread.sleep(Duration.ofMillis(20).toMillis());
+        limiter.tryAcquire();
+        limiter.release(FAST, 1, false);
+        assertThat(limiter.getLimit()).isEqualTo(81);
+    }
+
+    private static ConcurrencyLimitProperties properties(int initialLimit) {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(5);
+        properties.setMaxLimit(1000);
+        return properties;
+    }
+}
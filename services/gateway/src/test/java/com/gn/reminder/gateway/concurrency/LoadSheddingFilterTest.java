@@ -0,0 +1,135 @@
+package com.gn.reminder.gateway.concurrency;
+
+import com.gn.reminder.gateway.concurrency.LoadSheddingProperties.Priority;
+import com.gn.reminder.gateway.concurrency.LoadSheddingProperties.PriorityRule;
+import com.gn.reminder.gateway.security.HybridJwtValidator;
+import com.gn.reminder.gateway.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LoadSheddingFilter Unit Tests")
+class LoadSheddingFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("user-service")
+            .uri(URI.create("lb://USER-SERVICE"))
+            .predicate(exchange -> true)
+            .build();
+
+    private final OverloadDetector detector = mock(OverloadDetector.class);
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        properties.setEnabled(true);
+        properties.setDefaultPriority(Priority.NORMAL);
+        properties.setPriorities(List.of(
+                rule("/api/v1/auth/**", null, null, Priority.CRITICAL),
+                rule("/api/v1/user/**", List.of("GET"), true, Priority.HIGH),
+                rule("/api/v1/user/**", List.of(), false, Priority.LOW),
+                rule("/api/v1/user/**", List.of(), null, Priority.NORMAL)));
+        filter = new LoadSheddingFilter(properties, detector, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should tell authenticated and anonymous callers apart")
+    void shouldPrioritiseByAuthentication() {
+        // When / Then
+        assertThat(filter.priorityOf(exchange(MockServerHttpRequest.get("/api/v1/user/me"), true), "user-service"))
+                .isEqualTo(Priority.HIGH);
+        assertThat(filter.priorityOf(exchange(MockServerHttpRequest.get("/api/v1/user/me"), false), "user-service"))
+                .isEqualTo(Priority.LOW);
+    }
+
+    @Test
+    @DisplayName("Should use the first matching rule, then the default priority")
+    void shouldUseFirstMatchingRule() {
+        // When / Then
+        assertThat(filter.priorityOf(exchange(MockServerHttpRequest.put("/api/v1/user/me"), true), "user-service"))
+                .isEqualTo(Priority.NORMAL);
+        assertThat(filter.priorityOf(exchange(MockServerHttpRequest.get("/api/v1/auth/login"), false), "user-service"))
+                .isEqualTo(Priority.CRITICAL);
+        assertThat(filter.priorityOf(exchange(MockServerHttpRequest.get("/api/v1/reminders"), true), "user-service"))
+                .isEqualTo(Priority.NORMAL);
+    }
+
+    @Test
+    @DisplayName("Should answer a shed request with 503 and Retry-After without calling the chain")
+    void shouldShedWith503() {
+        // Given
+        when(detector.isShedding()).thenReturn(true);
+        when(detector.shouldShed(any())).thenAnswer(invocation -> invocation.getArgument(0) == Priority.LOW);
+        AtomicBoolean forwarded = new AtomicBoolean();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.set(true);
+            return Mono.empty();
+        };
+        MockServerWebExchange anonymous = exchange(MockServerHttpRequest.get("/api/v1/user/me"), false);
+
+        // When
+        filter.filter(anonymous, chain).block();
+
+        // Then
+        assertThat(forwarded).isFalse();
+        assertThat(anonymous.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(anonymous.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("Should admit higher priorities while lower ones are shed")
+    void shouldAdmitHigherPriorities() {
+        // Given
+        when(detector.isShedding()).thenReturn(true);
+        when(detector.shouldShed(any())).thenAnswer(invocation -> invocation.getArgument(0) == Priority.LOW);
+        AtomicBoolean forwarded = new AtomicBoolean();
+        GatewayFilterChain chain = exchange -> {
+            forwarded.set(true);
+            return Mono.empty();
+        };
+
+        // When
+        filter.filter(exchange(MockServerHttpRequest.get("/api/v1/user/me"), true), chain).block();
+
+        // Then
+        assertThat(forwarded).isTrue();
+    }
+
+    private static PriorityRule rule(String path, List<String> methods, Boolean authenticated, Priority priority) {
+        PriorityRule rule = new PriorityRule();
+        rule.setPath(path);
+        if (methods != null) {
+            rule.setMethods(methods);
+        }
+        rule.setAuthenticated(authenticated);
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, boolean authenticated) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        if (authenticated) {
+            exchange.getAttributes().put(JwtAuthenticationFilter.TOKEN_INFO_ATTRIBUTE,
+                    HybridJwtValidator.TokenInfo.builder().userId("user-1").build());
+        }
+        return exchange;
+    }
+}
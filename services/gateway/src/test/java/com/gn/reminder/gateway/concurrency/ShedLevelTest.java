@@ -0,0 +1,87 @@
+package com.gn.reminder.gateway.concurrency;
+
+import com.gn.reminder.gateway.concurrency.LoadSheddingProperties.Priority;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ShedLevel Unit Tests")
+class ShedLevelTest {
+
+    private static final long MS = 1_000_000L;
+
+    private ShedLevel shedLevel;
+
+    @BeforeEach
+    void setUp() {
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        properties.setEventLoopLagThreshold(Duration.ofMillis(50));
+        properties.setCpuThreshold(0.9);
+        properties.setSmoothing(1.0); // No smoothing: each sample decides
+        properties.setEscalationInterval(Duration.ofSeconds(1));
+        properties.setRecoveryInterval(Duration.ofSeconds(5));
+        shedLevel = new ShedLevel(properties);
+    }
+
+    @Test
+    @DisplayName("Should admit everything while event loops and CPU are healthy")
+    void shouldAdmitWhenHealthy() {
+        // When
+        shedLevel.update(5 * MS, 0.4, 0);
+        shedLevel.update(10 * MS, 0.5, 100 * MS);
+
+        // Then
+        assertThat(shedLevel.level()).isZero();
+        assertThat(shedLevel.shouldShed(Priority.LOW)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should shed low priority first and escalate one priority per interval, never critical")
+    void shouldEscalateWhileOverloaded() {
+        // When / Then
+        shedLevel.update(200 * MS, 0.5, 0);
+        assertThat(shedLevel.shouldShed(Priority.LOW)).isTrue();
+        assertThat(shedLevel.shouldShed(Priority.NORMAL)).isFalse();
+
+        shedLevel.update(200 * MS, 0.5, 500 * MS);
+        assertThat(shedLevel.level()).isEqualTo(1);
+
+        shedLevel.update(200 * MS, 0.5, 1000 * MS);
+        shedLevel.update(200 * MS, 0.5, 2000 * MS);
+        shedLevel.update(200 * MS, 0.5, 3000 * MS);
+        shedLevel.update(200 * MS, 0.5, 4000 * MS);
+        assertThat(shedLevel.shouldShed(Priority.HIGH)).isTrue();
+        assertThat(shedLevel.shouldShed(Priority.CRITICAL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should treat CPU saturation alone as overload")
+    void shouldShedOnCpu() {
+        // When
+        shedLevel.update(1 * MS, 0.97, 0);
+
+        // Then
+        assertThat(shedLevel.shouldShed(Priority.LOW)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should readmit one priority per recovery interval once healthy")
+    void shouldRecoverGradually() {
+        // Given
+        shedLevel.update(200 * MS, 0.5, 0);
+        shedLevel.update(200 * MS, 0.5, 1000 * MS);
+
+        // When / Then
+        shedLevel.update(5 * MS, 0.5, 3000 * MS);
+        assertThat(shedLevel.level()).isEqualTo(2);
+        shedLevel.update(5 * MS, 0.5, 6000 * MS);
+        assertThat(shedLevel.level()).isEqualTo(1);
+        shedLevel.update(5 * MS, 0.5, 8000 * MS);
+        assertThat(shedLevel.level()).isEqualTo(1);
+        shedLevel.update(5 * MS, 0.5, 11000 * MS);
+        assertThat(shedLevel.level()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ConsistentHashRing Unit Tests")
+class ConsistentHashRingTest {
+
+    private final List<ServiceInstance> instances = List.of(
+            instance("10.0.0.1"), instance("10.0.0.2"), instance("10.0.0.3"),
+            instance("10.0.0.4"), instance("10.0.0.5"));
+
+    @Test
+    @DisplayName("Should spread keys evenly across instances")
+    void shouldSpreadKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(instances, 160);
+        Map<ServiceInstance, Integer> counts = new HashMap<>();
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(ring.pick("user-" + i, instance -> true), 1, Integer::sum);
+        }
+
+        // Then
+        assertThat(counts).hasSize(5);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(1600, 2400));
+    }
+
+    @Test
+    @DisplayName("Should only remap the keys of a removed instance")
+    void shouldOnlyRemapAffectedKeys() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(instances, 160);
+        ConsistentHashRing after = new ConsistentHashRing(instances.subList(0, 4), 160);
+        ServiceInstance removed = instances.get(4);
+
+        // When / Then
+        for (int i = 0; i < 10_000; i++) {
+            ServiceInstance owner = before.pick("user-" + i, instance -> true);
+            if (!owner.equals(removed)) {
+                assertThat(after.pick("user-" + i, instance -> true)).isEqualTo(owner);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a user on one instance and spill over once it exceeds its load bound")
+    void shouldBoundLoadPerInstance() {
+        // Given
+        LoadBalancingProperties properties = new LoadBalancingProperties();
+        properties.getAffinity().setEnabled(true);
+        properties.getAffinity().setServices(List.of("USER-SERVICE"));
+        InstanceStatsRegistry registry = new InstanceStatsRegistry(properties, new SimpleMeterRegistry());
+        PeakEwmaLoadBalancer loadBalancer = new PeakEwmaLoadBalancer(null, registry, "USER-SERVICE");
+        ServiceInstance owner = loadBalancer.select(instances, "user-42").getServer();
+
+        // When
+        List<ServiceInstance> chosen = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(loadBalancer.select(instances, "user-42").getServer());
+        }
+        for (int i = 0; i < 10; i++) {
+            registry.get(owner).start();
+        }
+        ServiceInstance underLoad = loadBalancer.select(instances, "user-42").getServer();
+
+        // Then
+        assertThat(chosen).containsOnly(owner);
+        assertThat(underLoad).isNotEqualTo(owner);
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host + ":8080", "USER-SERVICE", host, 8080, false);
+    }
+}
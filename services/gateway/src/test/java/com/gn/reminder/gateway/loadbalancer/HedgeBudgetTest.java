@@ -0,0 +1,55 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HedgeBudget Unit Tests")
+class HedgeBudgetTest {
+
+    private final HedgeBudget budget = new HedgeBudget();
+
+    @Test
+    @DisplayName("Should allow hedges for at most the budget percentage of requests")
+    void shouldCapHedgesAtBudgetPercent() {
+        // Given
+        int hedges = 0;
+
+        // When: every request wants a hedge, as when the whole service is slow
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit(10, 20);
+            if (budget.tryWithdraw()) {
+                hedges++;
+            }
+        }
+
+        // Then
+        assertThat(hedges).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should save up no more than the burst size")
+    void shouldCapBurst() {
+        // Given
+        for (int i = 0; i < 10_000; i++) {
+            budget.deposit(10, 20);
+        }
+
+        // When
+        int hedges = 0;
+        while (budget.tryWithdraw()) {
+            hedges++;
+        }
+
+        // Then
+        assertThat(hedges).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should refuse hedges before any request has paid into the budget")
+    void shouldStartEmpty() {
+        // When / Then
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+}
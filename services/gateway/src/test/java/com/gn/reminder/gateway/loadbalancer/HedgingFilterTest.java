@@ -0,0 +1,161 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import com.gn.reminder.gateway.resilience.DeadlinePropagationFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("HedgingFilter Unit Tests")
+class HedgingFilterTest {
+
+    private static final ServiceInstance PRIMARY =
+            new DefaultServiceInstance("primary", "USER-SERVICE", "127.0.0.1", 1, false);
+
+    private final AtomicReference<String> hedgeTimeoutHeader = new AtomicReference<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer hedgeServer;
+    private HedgingProperties properties;
+    private HedgingFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Stands in for the second instance; answers with a body larger than any buffer limit
+        hedgeServer = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/api/v1/user", (request, response) -> {
+                    hedgeTimeoutHeader.set(request.requestHeaders().get(DeadlinePropagationFilter.TIMEOUT_HEADER));
+                    return response.sendString(Flux.range(0, 1024).map(i -> "x".repeat(512)));
+                }))
+                .bindNow();
+        ServiceInstance hedgeInstance =
+                new DefaultServiceInstance("hedge", "USER-SERVICE", "127.0.0.1", hedgeServer.port(), false);
+
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(supplier.get()).thenReturn(Flux.just(List.of(PRIMARY, hedgeInstance)));
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider = mock(ObjectProvider.class);
+        when(supplierProvider.getIfAvailable()).thenReturn(supplier);
+        LoadBalancerClientFactory clientFactory = mock(LoadBalancerClientFactory.class);
+        when(clientFactory.getLazyProvider(eq("USER-SERVICE"), any())).thenReturn((ObjectProvider) supplierProvider);
+
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setRoutes(List.of("user-service"));
+        properties.setInitialDelay(Duration.ofSeconds(5));
+        filter = new HedgingFilter(properties,
+                new InstanceStatsRegistry(new LoadBalancingProperties(), meterRegistry),
+                clientFactory,
+                mock(ObjectProvider.class),
+                new HttpClientProperties(),
+                meterRegistry,
+                HttpClient.create());
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedgeServer.disposeNow();
+    }
+
+    @Test
+    @DisplayName("Should leave a primary that answers in time to the rest of the chain")
+    void shouldNotHedgeFastPrimary() {
+        // Given
+        MockServerWebExchange exchange = exchange();
+        GatewayFilterChain chain = ex -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+
+        // When
+        filter.filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(meterRegistry.counter("gateway.hedging.hedges", "route", "user-service").count()).isZero();
+        assertThat(hedgeTimeoutHeader.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should hedge at once when the primary fails, streaming the body and cutting the timeout budget")
+    void shouldHedgeWhenPrimaryFails() {
+        // Given
+        MockServerWebExchange exchange = exchange();
+        GatewayFilterChain chain = ex -> Mono.delay(Duration.ofMillis(50))
+                .then(Mono.error(new IllegalStateException("Connection refused")));
+
+        // When
+        filter.filter(exchange, chain).block(Duration.ofSeconds(3));
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).hasSize(1024 * 512);
+        assertThat(Long.parseLong(hedgeTimeoutHeader.get())).isBetween(1L, 1949L);
+        assertThat(meterRegistry.counter("gateway.hedging.wins", "route", "user-service").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cancel a slow primary once the hedge answers")
+    void shouldCancelSlowPrimary() {
+        // Given
+        properties.setInitialDelay(Duration.ofMillis(20));
+        MockServerWebExchange exchange = exchange();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        GatewayFilterChain chain = ex -> Mono.<Void>never().doOnCancel(() -> primaryCancelled.set(true));
+
+        // When
+        filter.filter(exchange, chain).block(Duration.ofSeconds(3));
+
+        // Then
+        assertThat(primaryCancelled).isTrue();
+        assertThat(exchange.getAttributes()).containsKey(HedgingFilter.HEDGE_WON_ATTRIBUTE);
+        assertThat(exchange.getResponse().getBodyAsString().block()).hasSize(1024 * 512);
+    }
+
+    private static MockServerWebExchange exchange() {
+        Route route = Route.async()
+                .id("user-service")
+                .uri(URI.create("lb://USER-SERVICE"))
+                .predicate(exchange -> true)
+                .metadata(Map.of("response-timeout", 2000))
+                .build();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/user")
+                .header(DeadlinePropagationFilter.TIMEOUT_HEADER, "1950"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(PRIMARY));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, URI.create("http://127.0.0.1:1/api/v1/user"));
+        return exchange;
+    }
+}
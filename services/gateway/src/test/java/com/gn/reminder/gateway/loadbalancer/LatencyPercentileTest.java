@@ -0,0 +1,44 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LatencyPercentile Unit Tests")
+class LatencyPercentileTest {
+
+    private final LatencyPercentile latency = new LatencyPercentile();
+
+    @Test
+    @DisplayName("Should report nothing until enough samples are recorded")
+    void shouldStartUnknown() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            latency.record(1_000_000, 95);
+        }
+
+        // Then
+        assertThat(latency.valueNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should track the percentile of the most recent samples")
+    void shouldTrackRecentPercentile() {
+        // Given: 90% fast and 10% slow calls
+        for (int i = 0; i < 512; i++) {
+            latency.record(i % 10 == 0 ? 500_000_000 : 5_000_000, 95);
+        }
+
+        // When / Then
+        assertThat(latency.valueNanos()).isEqualTo(500_000_000);
+
+        // When: the slow instance recovers
+        for (int i = 0; i < 512; i++) {
+            latency.record(5_000_000, 95);
+        }
+
+        // Then
+        assertThat(latency.valueNanos()).isEqualTo(5_000_000);
+    }
+}
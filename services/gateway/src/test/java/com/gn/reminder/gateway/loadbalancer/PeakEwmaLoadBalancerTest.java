@@ -0,0 +1,117 @@
+package com.gn.reminder.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PeakEwmaLoadBalancer Unit Tests")
+class PeakEwmaLoadBalancerTest {
+
+    private final ServiceInstance slow = instance("10.0.0.1");
+    private final ServiceInstance fast = instance("10.0.0.2");
+    private final ServiceInstance other = instance("10.0.0.3");
+
+    private InstanceStatsRegistry registry;
+    private PeakEwmaLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InstanceStatsRegistry(new LoadBalancingProperties(), new SimpleMeterRegistry());
+        loadBalancer = new PeakEwmaLoadBalancer(null, registry, "USER-SERVICE");
+    }
+
+    @Test
+    @DisplayName("Should send traffic to the instance with lower latency")
+    void shouldPreferLowerLatency() {
+        // Given
+        sample(slow, Duration.ofSeconds(1), false);
+        sample(fast, Duration.ofMillis(10), false);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.select(List.of(slow, fast)).getServer()).isEqualTo(fast);
+        }
+    }
+
+    @Test
+    @DisplayName("Should account for requests still in flight")
+    void shouldPreferFewerInFlight() {
+        // Given
+        sample(slow, Duration.ofMillis(10), false);
+        sample(fast, Duration.ofMillis(10), false);
+        registry.get(slow).start();
+        registry.get(slow).start();
+
+        // When / Then
+        assertThat(loadBalancer.select(List.of(slow, fast)).getServer()).isEqualTo(fast);
+    }
+
+    @Test
+    @DisplayName("Should skip an instance ejected after consecutive failures")
+    void shouldEjectAfterConsecutiveFailures() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            sample(slow, Duration.ofMillis(1), true);
+        }
+
+        // When / Then
+        assertThat(registry.get(slow).isEjected(System.nanoTime())).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.select(List.of(slow, fast, other)).getServer()).isNotEqualTo(slow);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not eject an instance when failures are interrupted by a success")
+    void shouldResetFailuresOnSuccess() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            sample(slow, Duration.ofMillis(1), true);
+        }
+        sample(slow, Duration.ofMillis(1), false);
+        sample(slow, Duration.ofMillis(1), true);
+
+        // When / Then
+        assertThat(registry.get(slow).isEjected(System.nanoTime())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should ignore ejections when too few instances would remain")
+    void shouldIgnoreEjectionWhenAllInstancesFail() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            sample(slow, Duration.ofMillis(1), true);
+            sample(fast, Duration.ofMillis(1), true);
+        }
+
+        // When
+        ServiceInstance chosen = loadBalancer.select(List.of(slow, fast)).getServer();
+
+        // Then
+        assertThat(chosen).isIn(slow, fast);
+    }
+
+    @Test
+    @DisplayName("Should return no server when the service has no instances")
+    void shouldHandleNoInstances() {
+        // When / Then
+        assertThat(loadBalancer.select(List.of()).hasServer()).isFalse();
+    }
+
+    private void sample(ServiceInstance instance, Duration rtt, boolean failed) {
+        InstanceStats stats = registry.get(instance);
+        stats.start();
+        registry.complete(instance, stats, rtt.toNanos(), failed);
+    }
+
+    private static ServiceInstance instance(String host) {
+        return new DefaultServiceInstance(host + ":8080", "USER-SERVICE", host, 8080, false);
+    }
+}
@@ -0,0 +1,93 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DistributedRateLimiter Unit Tests")
+class DistributedRateLimiterTest {
+
+    private static final int LEASE_SIZE = 5;
+    private static final Bandwidth BANDWIDTH = Bandwidth.of(100, Duration.ofMinutes(1), Duration.ZERO);
+
+    // Stand-in for scripts/token_bucket.lua without refill: {granted, tokens left, ms until the next token}
+    private final AtomicLong bucket = new AtomicLong();
+    private final AtomicInteger redisCalls = new AtomicInteger();
+    private DistributedRateLimiter limiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenAnswer(invocation -> {
+            redisCalls.incrementAndGet();
+            // Answer later, so concurrent callers all wait on the same lease refill
+            return Mono.delay(Duration.ofMillis(20)).map(tick -> {
+                long granted = Math.min(LEASE_SIZE, bucket.get());
+                long left = bucket.addAndGet(-granted);
+                return List.of(granted, left, granted == 0 ? 600L : 0L);
+            }).flux();
+        });
+        limiter = new DistributedRateLimiter(redisTemplate, new SimpleMeterRegistry(), LEASE_SIZE,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5), 1024);
+    }
+
+    @Test
+    @DisplayName("Should admit more parallel requests than one lease holds while Redis has tokens")
+    void shouldRefetchWhenSharedLeaseIsUsedUp() {
+        // Given
+        bucket.set(100);
+
+        // When
+        List<RateLimitDecision> decisions = Flux.merge(IntStream.range(0, 4 * LEASE_SIZE)
+                        .mapToObj(i -> limiter.tryAcquire("user:1", BANDWIDTH))
+                        .toList())
+                .collectList()
+                .block();
+
+        // Then
+        assertThat(decisions).hasSize(4 * LEASE_SIZE).allMatch(RateLimitDecision::allowed);
+        assertThat(bucket.get()).isEqualTo(100 - 4 * LEASE_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should reject once Redis denies, and remember the denial until a token is due")
+    void shouldCacheDenials() {
+        // Given
+        bucket.set(LEASE_SIZE);
+
+        // When
+        List<RateLimitDecision> decisions = Flux.merge(IntStream.range(0, 2 * LEASE_SIZE)
+                        .mapToObj(i -> limiter.tryAcquire("user:1", BANDWIDTH))
+                        .toList())
+                .collectList()
+                .block();
+        RateLimitDecision denied = limiter.tryAcquire("user:1", BANDWIDTH).block();
+        int callsAfterDenial = redisCalls.get();
+        RateLimitDecision again = limiter.tryAcquire("user:1", BANDWIDTH).block();
+
+        // Then
+        assertThat(decisions.stream().filter(RateLimitDecision::allowed)).hasSize(LEASE_SIZE);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(again.allowed()).isFalse();
+        assertThat(again.retryAfterNanos()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(600).toNanos());
+        assertThat(redisCalls.get()).isEqualTo(callsAfterDenial);
+    }
+}
@@ -0,0 +1,74 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HeavyHitterTracker Unit Tests")
+class HeavyHitterTrackerTest {
+
+    @Test
+    @DisplayName("Should report the heaviest keys among many light ones")
+    void shouldFindHeavyHitters() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HeavyHitterTracker tracker = new HeavyHitterTracker(registry, true, 3, 4, 1024, Duration.ofSeconds(10));
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            tracker.record("ip:10.0.0." + (i % 5000));
+            if (i % 4 == 0) {
+                tracker.record("user:heavy");
+            }
+            if (i % 10 == 0) {
+                tracker.record("ip:192.168.1.1");
+            }
+        }
+        tracker.rotate();
+
+        // Then
+        List<HeavyHitterTracker.HeavyHitter> hitters = tracker.lastWindow();
+        assertThat(hitters).hasSize(3);
+        assertThat(hitters.get(0).key()).isEqualTo("user:heavy");
+        assertThat(hitters.get(0).count()).isGreaterThanOrEqualTo(5000);
+        assertThat(hitters.get(1).key()).isEqualTo("ip:192.168.1.1");
+        assertThat(registry.get("gateway.ratelimit.heavy_hitters.rate").tag("rank", "1").gauge().value())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    @DisplayName("Should start every window from zero")
+    void shouldResetOnRotate() {
+        // Given
+        HeavyHitterTracker tracker =
+                new HeavyHitterTracker(new SimpleMeterRegistry(), true, 3, 4, 1024, Duration.ofSeconds(10));
+        tracker.record("user:1");
+
+        // When
+        tracker.rotate();
+        tracker.rotate();
+
+        // Then
+        assertThat(tracker.lastWindow()).isEmpty();
+        assertThat(tracker.currentWindow()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should record nothing when disabled")
+    void shouldIgnoreWhenDisabled() {
+        // Given
+        HeavyHitterTracker tracker =
+                new HeavyHitterTracker(new SimpleMeterRegistry(), false, 3, 4, 1024, Duration.ofSeconds(10));
+
+        // When
+        tracker.record("user:1");
+
+        // Then
+        assertThat(tracker.currentWindow()).isEmpty();
+    }
+}
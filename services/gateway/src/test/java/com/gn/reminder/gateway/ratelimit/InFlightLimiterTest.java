@@ -0,0 +1,58 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InFlightLimiter Unit Tests")
+class InFlightLimiterTest {
+
+    @Test
+    @DisplayName("Should cap concurrent requests per key and count rejections")
+    void shouldCapPerKey() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InFlightLimiter limiter = new InFlightLimiter(registry, true, 3, 65536);
+
+        // When
+        int first = limiter.tryAcquire("user:1");
+        limiter.tryAcquire("user:1");
+        limiter.tryAcquire("user:1");
+        int rejected = limiter.tryAcquire("user:1");
+
+        // Then
+        assertThat(first).isNotNegative();
+        assertThat(rejected).isEqualTo(-1);
+        assertThat(limiter.tryAcquire("user:2")).isNotNegative();
+        assertThat(registry.get("gateway.ratelimit.inflight.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should free a slot on release")
+    void shouldReleaseSlots() {
+        // Given
+        InFlightLimiter limiter = new InFlightLimiter(new SimpleMeterRegistry(), true, 1, 65536);
+        int stripe = limiter.tryAcquire("ip:10.0.0.1");
+
+        // When
+        limiter.release(stripe);
+
+        // Then
+        assertThat(limiter.totalInFlight()).isZero();
+        assertThat(limiter.tryAcquire("ip:10.0.0.1")).isEqualTo(stripe);
+    }
+
+    @Test
+    @DisplayName("Should admit everything when disabled")
+    void shouldAdmitWhenDisabled() {
+        // Given
+        InFlightLimiter limiter = new InFlightLimiter(new SimpleMeterRegistry(), false, 1, 65536);
+
+        // When / Then
+        assertThat(limiter.tryAcquire("user:1")).isNotNegative();
+        assertThat(limiter.tryAcquire("user:1")).isNotNegative();
+        assertThat(limiter.totalInFlight()).isZero();
+    }
+}
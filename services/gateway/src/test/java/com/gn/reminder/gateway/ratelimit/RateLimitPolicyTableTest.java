@@ -0,0 +1,98 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RateLimitPolicyTable Unit Tests")
+class RateLimitPolicyTableTest {
+
+    private static final RateLimitPolicy DEFAULT_POLICY =
+            new RateLimitPolicy(null, Bandwidth.of(100, Duration.ofSeconds(60), Duration.ZERO), "60s");
+
+    private RateLimitPolicyTable table;
+
+    @BeforeEach
+    void setUp() {
+        table = RateLimitPolicyTable.compile(List.of(
+                policy("auth-credentials", null, "/api/v1/auth/**", List.of("POST"), null, 20),
+                policy("auth-login", null, "/api/v1/auth/login", List.of("post"), null, 5),
+                policy("user-api", "user-service", "/api/v1/user/**", List.of(), null, 300),
+                policy("user-api-premium", "user-service", "/api/v1/user/**", List.of(), "premium", 1200)
+        ), DEFAULT_POLICY, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Should prefer an exact path over a prefix")
+    void shouldPreferExactPath() {
+        // When / Then
+        assertThat(table.resolve("user-service", "POST", null, "/api/v1/auth/login").id()).isEqualTo("auth-login");
+        assertThat(table.resolve("user-service", "POST", null, "/api/v1/auth/signup").id()).isEqualTo("auth-credentials");
+    }
+
+    @Test
+    @DisplayName("Should match methods and fall back to the default policy")
+    void shouldMatchMethod() {
+        // When / Then
+        assertThat(table.resolve("user-service", "GET", null, "/api/v1/auth/validate")).isSameAs(DEFAULT_POLICY);
+        assertThat(table.resolve("user-service", "GET", null, "/api/v1/other")).isSameAs(DEFAULT_POLICY);
+    }
+
+    @Test
+    @DisplayName("Should select the tier-specific policy for the caller's tier")
+    void shouldSelectTier() {
+        // When
+        RateLimitPolicy basic = table.resolve("user-service", "GET", null, "/api/v1/user/42");
+        RateLimitPolicy premium = table.resolve("user-service", "GET", "premium", "/api/v1/user/42");
+        RateLimitPolicy unknownTier = table.resolve("user-service", "GET", "gold", "/api/v1/user");
+
+        // Then
+        assertThat(basic.id()).isEqualTo("user-api");
+        assertThat(premium.id()).isEqualTo("user-api-premium");
+        assertThat(premium.bandwidth().limitForPeriod()).isEqualTo(1200);
+        assertThat(unknownTier.id()).isEqualTo("user-api");
+    }
+
+    @Test
+    @DisplayName("Should only apply route-scoped policies to their route")
+    void shouldScopeByRoute() {
+        // When / Then
+        assertThat(table.resolve("other-route", "GET", null, "/api/v1/user/42")).isSameAs(DEFAULT_POLICY);
+    }
+
+    @Test
+    @DisplayName("Should give each policy its own bucket key")
+    void shouldSeparateBucketKeys() {
+        // When / Then
+        assertThat(DEFAULT_POLICY.bucketKey("ip:10.0.0.1")).isEqualTo("ip:10.0.0.1");
+        assertThat(table.resolve("user-service", "GET", null, "/api/v1/user").bucketKey("ip:10.0.0.1"))
+                .isEqualTo("user-api|ip:10.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Should reject wildcards other than a trailing /**")
+    void shouldRejectInnerWildcards() {
+        // When / Then
+        assertThatThrownBy(() -> RateLimitPolicyTable.compile(
+                List.of(policy("bad", null, "/api/*/user", List.of(), null, 10)), DEFAULT_POLICY, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RateLimitPolicyProperties.Policy policy(String id, String routeId, String path,
+                                                           List<String> methods, String tier, int limit) {
+        RateLimitPolicyProperties.Policy policy = new RateLimitPolicyProperties.Policy();
+        policy.setId(id);
+        policy.setRouteId(routeId);
+        policy.setPath(path);
+        policy.setMethods(methods);
+        policy.setTier(tier);
+        policy.setLimitForPeriod(limit);
+        return policy;
+    }
+}
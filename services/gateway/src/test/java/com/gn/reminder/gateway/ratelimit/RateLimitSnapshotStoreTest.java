@@ -0,0 +1,64 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitSnapshotStore Unit Tests")
+class RateLimitSnapshotStoreTest {
+
+    private static final Bandwidth TEN_PER_MINUTE = Bandwidth.of(10, Duration.ofSeconds(60), Duration.ZERO);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should restore drained buckets into a new limiter")
+    void shouldRestoreDrainedBuckets() {
+        // Given
+        Path file = tempDir.resolve("state/rate-limit.snapshot");
+        TokenBucketRateLimiter before = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+        for (int i = 0; i < 10; i++) {
+            before.tryAcquire("ip:abuser");
+        }
+        for (int i = 0; i < 3; i++) {
+            before.tryAcquire("user:42");
+        }
+        RateLimitSnapshotStore store = new RateLimitSnapshotStore(true, file.toString(), Duration.ofSeconds(10));
+        store.attach(before);
+        store.snapshot();
+        store.stop();
+
+        // When
+        TokenBucketRateLimiter after = new TokenBucketRateLimiter(4096, TEN_PER_MINUTE);
+        new RateLimitSnapshotStore(true, file.toString(), Duration.ofSeconds(10)).restore(after);
+
+        // Then
+        assertThat(Files.exists(file)).isTrue();
+        assertThat(after.tryAcquire("ip:abuser").allowed()).isFalse();
+        assertThat(after.tryAcquire("user:42").remaining()).isEqualTo(6);
+        assertThat(after.tryAcquire("ip:new").remaining()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("Should start empty when there is no snapshot or it is unreadable")
+    void shouldIgnoreMissingOrCorruptSnapshot() throws Exception {
+        // Given
+        Path missing = tempDir.resolve("missing.snapshot");
+        Path corrupt = Files.write(tempDir.resolve("corrupt.snapshot"), new byte[]{1, 2, 3});
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+
+        // When
+        new RateLimitSnapshotStore(true, missing.toString(), Duration.ofSeconds(10)).restore(limiter);
+        new RateLimitSnapshotStore(true, corrupt.toString(), Duration.ofSeconds(10)).restore(limiter);
+
+        // Then
+        assertThat(limiter.activeKeys()).isZero();
+    }
+}
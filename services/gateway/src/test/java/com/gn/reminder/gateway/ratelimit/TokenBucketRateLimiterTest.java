@@ -0,0 +1,135 @@
+package com.gn.reminder.gateway.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TokenBucketRateLimiter Unit Tests")
+class TokenBucketRateLimiterTest {
+
+    private static final Bandwidth TEN_PER_MINUTE = Bandwidth.of(10, Duration.ofSeconds(60), Duration.ZERO);
+
+    @Test
+    @DisplayName("Should allow a full bucket and reject the next request")
+    void shouldAllowFullBucketThenReject() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+        long now = System.nanoTime();
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            RateLimitDecision decision = limiter.tryAcquire("ip:10.0.0.1", now);
+            assertThat(decision.allowed()).isTrue();
+            assertThat(decision.remaining()).isEqualTo(10 - i);
+        }
+        RateLimitDecision rejected = limiter.tryAcquire("ip:10.0.0.1", now);
+
+        // Then
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(Duration.ofSeconds(6).toNanos());
+        assertThat(limiter.tryAcquire("ip:10.0.0.2", now).allowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should refill one permit per emission interval")
+    void shouldRefillOverTime() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("user:1", now);
+        }
+
+        // When
+        long later = now + Duration.ofSeconds(6).toNanos();
+
+        // Then
+        assertThat(limiter.tryAcquire("user:1", later).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user:1", later).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reserve a permit when it becomes available within the timeout")
+    void shouldReserveWithinTimeout() {
+        // Given
+        Bandwidth waiting = Bandwidth.of(10, Duration.ofSeconds(60), Duration.ofSeconds(7));
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, waiting);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("user:1", now);
+        }
+
+        // When
+        RateLimitDecision decision = limiter.tryAcquire("user:1", now);
+
+        // Then
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.waitNanos()).isEqualTo(Duration.ofSeconds(6).toNanos());
+        assertThat(limiter.tryAcquire("user:1", now).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a fixed table size with millions of distinct keys")
+    void shouldStayBoundedWithManyKeys() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(4096, TEN_PER_MINUTE);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("ip:abuser", now);
+        }
+
+        // When
+        for (int i = 0; i < 2_000_000; i++) {
+            limiter.tryAcquire("ip:" + i, now);
+        }
+
+        // Then
+        assertThat(limiter.capacity()).isEqualTo(4096);
+        assertThat(limiter.activeKeys()).isLessThanOrEqualTo(4096);
+        assertThat(limiter.evictions()).isPositive();
+        // Eviction prefers the fullest buckets, so an exhausted key keeps its state
+        assertThat(limiter.tryAcquire("ip:abuser", now).allowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rescale existing buckets when the limit changes")
+    void shouldRescaleOnLimitChange() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("user:1", now);
+        }
+
+        // When
+        Bandwidth hundredPerMinute = Bandwidth.of(100, Duration.ofSeconds(60), Duration.ZERO);
+        RateLimitDecision decision = limiter.tryAcquire("user:1", hundredPerMinute, now);
+
+        // Then - half the bucket was used before the change, so half of the new limit is left
+        assertThat(decision.allowed()).isTrue();
+        assertThat(decision.remaining()).isEqualTo(49);
+        assertThat(limiter.tryAcquire("user:2", hundredPerMinute, now).remaining()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("Should keep an exhausted bucket exhausted when the period changes")
+    void shouldRescaleOnPeriodChange() {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1024, TEN_PER_MINUTE);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("user:1", now);
+        }
+
+        // When
+        Bandwidth tenPerTwoMinutes = Bandwidth.of(10, Duration.ofSeconds(120), Duration.ZERO);
+        RateLimitDecision decision = limiter.tryAcquire("user:1", tenPerTwoMinutes, now);
+
+        // Then
+        assertThat(decision.allowed()).isFalse();
+        assertThat(decision.retryAfterNanos()).isEqualTo(Duration.ofSeconds(12).toNanos());
+    }
+}
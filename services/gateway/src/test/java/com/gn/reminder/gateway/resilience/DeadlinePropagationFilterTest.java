@@ -0,0 +1,103 @@
+package com.gn.reminder.gateway.resilience;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DeadlinePropagationFilter Unit Tests")
+class DeadlinePropagationFilterTest {
+
+    private final AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange.getRequest().getHeaders());
+        return Mono.empty();
+    };
+
+    @Test
+    @DisplayName("Should send the route's response timeout minus the margin")
+    void shouldUseRouteTimeout() {
+        // Given
+        DeadlinePropagationFilter filter = filter(Duration.ofSeconds(30));
+
+        // When
+        filter.filter(exchange(route(Map.of("response-timeout", 10000)), null), chain).block();
+
+        // Then
+        assertThat(forwarded.get().getFirst(DeadlinePropagationFilter.TIMEOUT_HEADER)).isEqualTo("9950");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the global response timeout and replace a client-supplied value")
+    void shouldUseGlobalTimeout() {
+        // Given
+        DeadlinePropagationFilter filter = filter(Duration.ofSeconds(30));
+
+        // When
+        filter.filter(exchange(route(Map.of()), "999999"), chain).block();
+
+        // Then
+        assertThat(forwarded.get().get(DeadlinePropagationFilter.TIMEOUT_HEADER)).containsExactly("29950");
+    }
+
+    @Test
+    @DisplayName("Should strip a client-supplied value when the route has no timeout")
+    void shouldStripHeaderWithoutTimeout() {
+        // Given
+        DeadlinePropagationFilter filter = filter(Duration.ofSeconds(30));
+
+        // When
+        filter.filter(exchange(route(Map.of("response-timeout", -1)), "5"), chain).block();
+
+        // Then
+        assertThat(forwarded.get().containsKey(DeadlinePropagationFilter.TIMEOUT_HEADER)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should never send a budget below one millisecond")
+    void shouldKeepBudgetPositive() {
+        // Given
+        DeadlinePropagationFilter filter = filter(null);
+
+        // When / Then
+        assertThat(filter.budgetMillis(route(Map.of("response-timeout", "20")))).isEqualTo(1);
+        assertThat(filter.budgetMillis(route(Map.of()))).isEqualTo(-1);
+    }
+
+    private static DeadlinePropagationFilter filter(Duration globalTimeout) {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setResponseTimeout(globalTimeout);
+        return new DeadlinePropagationFilter(properties, Duration.ofMillis(50), true);
+    }
+
+    private static Route route(Map<String, Object> metadata) {
+        return Route.async()
+                .id("user-service")
+                .uri(URI.create("http://localhost"))
+                .predicate(exchange -> true)
+                .metadata(metadata)
+                .build();
+    }
+
+    private static MockServerWebExchange exchange(Route route, String clientTimeout) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/user");
+        if (clientTimeout != null) {
+            request.header(DeadlinePropagationFilter.TIMEOUT_HEADER, clientTimeout);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,139 @@
+package com.gn.reminder.gateway.resilience;
+
+import com.gn.reminder.gateway.cache.ResponseCache;
+import com.gn.reminder.gateway.cache.ResponseCacheFilter;
+import com.gn.reminder.gateway.cache.ResponseCacheProperties;
+import com.gn.reminder.gateway.concurrency.AdaptiveConcurrencyFilter;
+import com.gn.reminder.gateway.concurrency.ConcurrencyLimitProperties;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RouteResilienceFilter Unit Tests")
+class RouteResilienceFilterTest {
+
+    private static final Route ROUTE = Route.async()
+            .id("user-service")
+            .uri(URI.create("http://localhost"))
+            .predicate(exchange -> true)
+            .build();
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private RouteResilienceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("resilience4j.circuitbreaker.instances.user-service.slidingWindowSize", "4")
+                .withProperty("resilience4j.circuitbreaker.instances.user-service.minimumNumberOfCalls", "4")
+                .withProperty("resilience4j.circuitbreaker.configs.default.waitDurationInOpenState", "30s")
+                .withProperty("resilience4j.bulkhead.instances.user-service.maxConcurrentCalls", "1");
+        ResponseCacheProperties cacheProperties = new ResponseCacheProperties();
+        ResponseCacheFilter responseCacheFilter = new ResponseCacheFilter(
+                cacheProperties, new ResponseCache(cacheProperties), new SimpleMeterRegistry());
+        filter = new RouteResilienceFilter(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                responseCacheFilter, new SimpleMeterRegistry(), environment, true);
+    }
+
+    @Test
+    @DisplayName("Should open the breaker after failing responses and then fail fast without calling downstream")
+    void shouldOpenAfterFailures() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            filter.filter(exchange(), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        }
+
+        // When
+        MockServerWebExchange rejected = exchange();
+        filter.filter(rejected, respondWith(HttpStatus.OK)).block();
+
+        // Then
+        assertThat(downstreamCalls.get()).isEqualTo(4);
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("30");
+    }
+
+    @Test
+    @DisplayName("Should stay closed while responses succeed")
+    void shouldStayClosedOnSuccess() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange(), respondWith(HttpStatus.OK)).block();
+        }
+
+        // Then
+        assertThat(downstreamCalls.get()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should reject calls beyond the route's bulkhead")
+    void shouldRejectWhenBulkheadFull() {
+        // Given
+        MockServerWebExchange first = exchange();
+        var inFlight = filter.filter(first, exchange -> {
+            downstreamCalls.incrementAndGet();
+            return Mono.never();
+        }).subscribe();
+
+        // When
+        MockServerWebExchange second = exchange();
+        filter.filter(second, respondWith(HttpStatus.OK)).block();
+
+        // Then
+        assertThat(downstreamCalls.get()).isEqualTo(1);
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        inFlight.dispose();
+    }
+
+    @Test
+    @DisplayName("Should leave the adaptive concurrency limit alone while the breaker answers for the route")
+    void shouldNotShrinkConcurrencyLimitWhileOpen() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            filter.filter(exchange(), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyFilter concurrencyFilter = new AdaptiveConcurrencyFilter(new ConcurrencyLimitProperties(), meterRegistry);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            concurrencyFilter.filter(exchange(), exchange -> filter.filter(exchange, respondWith(HttpStatus.OK))).block();
+        }
+
+        // Then
+        assertThat(downstreamCalls.get()).isEqualTo(4);
+        assertThat(meterRegistry.get("gateway.concurrency.limit").tag("route", "user-service").gauge().value())
+                .isEqualTo(new ConcurrencyLimitProperties().getInitialLimit());
+        assertThat(meterRegistry.get("gateway.concurrency.in_flight").tag("route", "user-service").gauge().value())
+                .isZero();
+    }
+
+    private GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/user"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, ROUTE);
+        return exchange;
+    }
+}
@@ -0,0 +1,79 @@
+package com.gn.reminder.gateway.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CidrTrie Unit Tests")
+class CidrTrieTest {
+
+    private CidrTrie<String> trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CidrTrie<>();
+        trie.add("10.0.0.0/8", "block");
+        trie.add("10.1.2.0/24", "allow");
+        trie.add("10.1.2.3", "block");
+        trie.add("2001:db8::/32", "block");
+        trie.add("2001:db8:1::/48", "allow");
+    }
+
+    @Test
+    @DisplayName("Should return the most specific IPv4 block")
+    void shouldMatchLongestIpv4Prefix() {
+        // When / Then
+        assertThat(trie.match("10.200.0.1")).isEqualTo("block");
+        assertThat(trie.match("10.1.2.4")).isEqualTo("allow");
+        assertThat(trie.match("10.1.2.3")).isEqualTo("block");
+        assertThat(trie.match("8.8.8.8")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should return the most specific IPv6 block and treat IPv4-mapped addresses as IPv4")
+    void shouldMatchIpv6() {
+        // When / Then
+        assertThat(trie.match("2001:db8::1")).isEqualTo("block");
+        assertThat(trie.match("[2001:db8:1::5]")).isEqualTo("allow");
+        assertThat(trie.match("2001:db9::1")).isNull();
+        assertThat(trie.match("::ffff:10.1.2.4")).isEqualTo("allow");
+    }
+
+    @Test
+    @DisplayName("Should not match anything that is not an IP literal")
+    void shouldIgnoreNonAddresses() {
+        // When / Then
+        assertThat(trie.match("unknown")).isNull();
+        assertThat(trie.match("evil.example.com")).isNull();
+        assertThat(trie.match("10.1.2")).isNull();
+        assertThat(trie.match("10.1.2.300")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed blocks")
+    void shouldRejectMalformedBlocks() {
+        // When / Then
+        assertThatThrownBy(() -> trie.add("10.0.0.0/33", "block")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trie.add("not-an-ip/8", "block")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should stay correct with many overlapping prefixes")
+    void shouldHandleManyPrefixes() {
+        // Given
+        CidrTrie<Integer> large = new CidrTrie<>();
+        for (int i = 0; i < 65536; i++) {
+            large.add("172." + (i >>> 8) + "." + (i & 0xFF) + ".0/24", i);
+        }
+        large.add("172.0.0.0/8", -1);
+
+        // When / Then
+        assertThat(large.size()).isEqualTo(65537);
+        assertThat(large.match("172.18.5.9")).isEqualTo(18 * 256 + 5);
+        assertThat(large.match("172.255.255.255")).isEqualTo(65535);
+        assertThat(large.match("173.0.0.1")).isNull();
+    }
+}
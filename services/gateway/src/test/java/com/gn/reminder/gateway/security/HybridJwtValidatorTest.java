@@ -0,0 +1,103 @@
+package com.gn.reminder.gateway.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("HybridJwtValidator Unit Tests")
+class HybridJwtValidatorTest {
+
+    private KeycloakJwkStore jwkStore;
+    private RejectedTokenCache rejectedTokenCache;
+    private HybridJwtValidator validator;
+    private RSAKey signingKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("rotated-key").generate();
+        jwkStore = mock(KeycloakJwkStore.class);
+        rejectedTokenCache = new RejectedTokenCache(new SimpleMeterRegistry(), true, 100, Duration.ofSeconds(30));
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(15));
+        validator = new HybridJwtValidator(
+                mock(JwtUtil.class),
+                NimbusReactiveJwtDecoder.withJwkSource(jwkStore::keysFor).build(),
+                jwkStore,
+                verifiedTokenCache,
+                rejectedTokenCache);
+        ReflectionTestUtils.setField(validator, "keycloakEnabled", true);
+    }
+
+    @Test
+    @DisplayName("Should not remember a token whose signing key the store does not have yet")
+    void shouldNotCacheUnknownKeyFailures() throws Exception {
+        // Given
+        String token = keycloakToken(signingKey);
+        when(jwkStore.keysFor(any())).thenReturn(Flux.empty());
+        when(jwkStore.hasKey(anyString())).thenReturn(false);
+
+        // When
+        assertThatThrownBy(() -> validator.validateToken(token).block())
+                .isInstanceOf(SigningKeyUnavailableException.class);
+
+        // Then
+        assertThat(rejectedTokenCache.isRejected(TokenDigest.of(token))).isFalse();
+
+        // And once the rotated key has been fetched, the same token is accepted
+        when(jwkStore.keysFor(any())).thenReturn(Flux.just(signingKey.toPublicJWK()));
+        when(jwkStore.hasKey("rotated-key")).thenReturn(true);
+        assertThat(validator.validateToken(token).block().getUserId()).isEqualTo("user-1");
+    }
+
+    @Test
+    @DisplayName("Should remember a token whose signature does not match a known key")
+    void shouldCacheBadSignatures() throws Exception {
+        // Given
+        RSAKey otherKey = new RSAKeyGenerator(2048).keyID("rotated-key").generate();
+        String token = keycloakToken(otherKey);
+        when(jwkStore.keysFor(any())).thenReturn(Flux.just(signingKey.toPublicJWK()));
+        when(jwkStore.hasKey("rotated-key")).thenReturn(true);
+
+        // When
+        assertThatThrownBy(() -> validator.validateToken(token).block())
+                .isInstanceOf(JwtException.class)
+                .isNotInstanceOf(SigningKeyUnavailableException.class);
+
+        // Then
+        assertThat(rejectedTokenCache.isRejected(TokenDigest.of(token))).isTrue();
+    }
+
+    private static String keycloakToken(RSAKey key) throws Exception {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("user-1")
+                .claim("preferred_username", "john")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
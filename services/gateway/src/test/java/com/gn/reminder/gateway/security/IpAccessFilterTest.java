@@ -0,0 +1,92 @@
+package com.gn.reminder.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IpAccessFilter Unit Tests")
+class IpAccessFilterTest {
+
+    private final GatewayFilterChain chain = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    private IpAccessProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IpAccessProperties();
+        properties.setBlock(List.of("203.0.113.0/24"));
+    }
+
+    @Test
+    @DisplayName("Should block on the socket address even when X-Forwarded-For names another client")
+    void shouldIgnoreSpoofedForwardedFor() {
+        // Given
+        IpAccessFilter filter = filter();
+        MockServerWebExchange exchange = exchange("203.0.113.7", "1.2.3.4");
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @DisplayName("Should use the right-most untrusted hop behind a trusted proxy")
+    void shouldResolveBehindTrustedProxy() {
+        // Given
+        properties.setTrustedProxies(List.of("10.0.0.0/8"));
+        IpAccessFilter filter = filter();
+        MockServerWebExchange blocked = exchange("10.0.1.5", "1.2.3.4, 203.0.113.7, 10.0.2.9");
+        MockServerWebExchange allowed = exchange("10.0.1.5", "203.0.113.7, 198.51.100.1");
+
+        // When
+        filter.filter(blocked, chain).block();
+        filter.filter(allowed, chain).block();
+
+        // Then
+        assertThat(blocked.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(allowed.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Should not read X-Forwarded-For from a peer that is not a trusted proxy")
+    void shouldNotTrustUnknownPeers() {
+        // Given
+        properties.setTrustedProxies(List.of("10.0.0.0/8"));
+        IpAccessFilter filter = filter();
+        MockServerWebExchange exchange = exchange("198.51.100.1", "203.0.113.7");
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private IpAccessFilter filter() {
+        IpAccessFilter filter = new IpAccessFilter(properties, new SimpleMeterRegistry());
+        filter.init();
+        return filter;
+    }
+
+    private static MockServerWebExchange exchange(String peer, String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/user")
+                .remoteAddress(new InetSocketAddress(peer, 40000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+}
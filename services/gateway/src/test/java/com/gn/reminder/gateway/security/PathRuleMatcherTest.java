@@ -0,0 +1,69 @@
+package com.gn.reminder.gateway.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PathRuleMatcher Unit Tests")
+class PathRuleMatcherTest {
+
+    private final PathRuleMatcher matcher = PathRuleMatcher.compile(
+            new AuthPathProperties().getPublicPaths(),
+            List.of("/actuator/env/**"));
+
+    @Test
+    @DisplayName("Should match exact public paths, with or without a trailing slash")
+    void shouldMatchExactPaths() {
+        // When / Then
+        assertThat(matcher.isPublic("/api/v1/auth/login")).isTrue();
+        assertThat(matcher.isPublic("/api/v1/auth/login/")).isTrue();
+        assertThat(matcher.isPublic("/api/v1/auth/loginx")).isFalse();
+        assertThat(matcher.isPublic("/api/v1/auth/validate")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match prefixes only at segment boundaries")
+    void shouldMatchPrefixes() {
+        // When / Then
+        assertThat(matcher.isPublic("/actuator")).isTrue();
+        assertThat(matcher.isPublic("/actuator/health")).isTrue();
+        assertThat(matcher.isPublic("/api/v1/auth/oauth2/callback")).isTrue();
+        assertThat(matcher.isPublic("/actuatorx")).isFalse();
+        assertThat(matcher.isPublic("/api/v1/user/1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should let a more specific authenticated rule override a public prefix")
+    void shouldPreferMoreSpecificRule() {
+        // When / Then
+        assertThat(matcher.isPublic("/actuator/env")).isFalse();
+        assertThat(matcher.isPublic("/actuator/env/jwt.secret")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match a single rule exactly or by prefix at segment boundaries")
+    void shouldMatchSingleRule() {
+        // When / Then
+        assertThat(PathRuleMatcher.matches("/api/v1/user", "/api/v1/user")).isTrue();
+        assertThat(PathRuleMatcher.matches("/api/v1/user", "/api/v1/user/")).isTrue();
+        assertThat(PathRuleMatcher.matches("/api/v1/user", "/api/v1/users")).isFalse();
+        assertThat(PathRuleMatcher.matches("/api/v1/user/**", "/api/v1/user")).isTrue();
+        assertThat(PathRuleMatcher.matches("/api/v1/user/**", "/api/v1/user/me")).isTrue();
+        assertThat(PathRuleMatcher.matches("/api/v1/user/**", "/api/v1/username")).isFalse();
+        assertThat(PathRuleMatcher.matches(null, "/anything")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported wildcards")
+    void shouldRejectUnsupportedPatterns() {
+        // When / Then
+        assertThatThrownBy(() -> PathRuleMatcher.compile(List.of("/api/*/login"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathRuleMatcher.compile(List.of("api/v1"), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -88,6 +88,30 @@ class RateLimitingFilterIntegrationTest {
                 });
     }
 
+    @Test
+    @DisplayName("Should reject immediately with Retry-After computed from the bucket state")
+    void shouldRejectFastWithComputedHeaders() {
+        String testIp = "192.168.1.107";
+
+        for (int i = 1; i <= 10; i++) {
+            webTestClient.get()
+                    .uri("/api/v1/auth/login") // Use public endpoint
+                    .header("X-Forwarded-For", testIp)
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+
+        // 10 requests per 60s refill one permit every 6s; the bucket is full again after 60s
+        webTestClient.get()
+                .uri("/api/v1/auth/login") // Use public endpoint
+                .header("X-Forwarded-For", testIp)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                .expectHeader().valueEquals("Retry-After", "6")
+                .expectHeader().valueEquals("X-RateLimit-Remaining", "0")
+                .expectHeader().valueEquals("X-RateLimit-Reset", "60");
+    }
+
     @Test
     @DisplayName("Should apply separate rate limits for different IP addresses")
     void shouldApplySeparateRateLimitsForDifferentIPs() {
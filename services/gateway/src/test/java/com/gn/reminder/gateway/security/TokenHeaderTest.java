@@ -0,0 +1,55 @@
+package com.gn.reminder.gateway.security;
+
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TokenHeader Unit Tests")
+class TokenHeaderTest {
+
+    @Test
+    @DisplayName("Should route HS512 tokens to the custom verifier")
+    void shouldDetectHmacToken() {
+        // When
+        TokenHeader header = TokenHeader.parse(token("{\"alg\":\"HS512\"}"));
+
+        // Then
+        assertThat(header.alg()).isEqualTo("HS512");
+        assertThat(header.isHmac()).isTrue();
+        assertThat(header.isAsymmetric()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should route RS256 tokens with kid to the Keycloak verifier")
+    void shouldDetectKeycloakToken() {
+        // When
+        TokenHeader header = TokenHeader.parse(token("{\"alg\":\"RS256\",\"kid\":\"abc\",\"typ\":\"JWT\"}"));
+
+        // Then
+        assertThat(header.isAsymmetric()).isTrue();
+        assertThat(header.kid()).isEqualTo("abc");
+    }
+
+    @Test
+    @DisplayName("Should reject garbage without attempting verification")
+    void shouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> TokenHeader.parse("malformed-token"))
+                .isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> TokenHeader.parse("not-base64!.payload.signature"))
+                .isInstanceOf(MalformedJwtException.class);
+        assertThatThrownBy(() -> TokenHeader.parse(token("{\"typ\":\"JWT\"}")))
+                .isInstanceOf(MalformedJwtException.class);
+    }
+
+    private String token(String headerJson) {
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(headerJson.getBytes(StandardCharsets.UTF_8));
+        return header + ".payload.signature";
+    }
+}
@@ -0,0 +1,91 @@
+package com.gn.reminder.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VerifiedTokenCache Unit Tests")
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(meterRegistry, true, 100, Duration.ofMinutes(15));
+    }
+
+    @Test
+    @DisplayName("Should return cached token info for a previously verified token")
+    void shouldReturnCachedTokenInfo() {
+        // Given
+        HybridJwtValidator.TokenInfo tokenInfo = tokenInfo(Instant.now().plusSeconds(300));
+        cache.put(TokenDigest.of("header.payload.signature"), tokenInfo);
+
+        // When
+        HybridJwtValidator.TokenInfo cached = cache.get(TokenDigest.of("header.payload.signature"));
+
+        // Then
+        assertThat(cached).isSameAs(tokenInfo);
+        assertThat(cache.get(TokenDigest.of("header.payload.other"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not cache expired tokens or tokens without expiry")
+    void shouldNotCacheExpiredTokens() {
+        // Given
+        cache.put(TokenDigest.of("expired"), tokenInfo(Instant.now().minusSeconds(1)));
+        cache.put(TokenDigest.of("no-expiry"), tokenInfo(null));
+
+        // Then
+        assertThat(cache.get(TokenDigest.of("expired"))).isNull();
+        assertThat(cache.get(TokenDigest.of("no-expiry"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should record hits and misses as cache metrics")
+    void shouldRecordHitAndMissMetrics() {
+        // Given
+        cache.put(TokenDigest.of("token"), tokenInfo(Instant.now().plusSeconds(300)));
+
+        // When
+        cache.get(TokenDigest.of("token"));
+        cache.get(TokenDigest.of("unknown"));
+
+        // Then
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified-tokens")
+                .tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache when disabled")
+    void shouldBypassWhenDisabled() {
+        // Given
+        VerifiedTokenCache disabled = new VerifiedTokenCache(meterRegistry, false, 100, Duration.ofMinutes(15));
+
+        // When
+        disabled.put(TokenDigest.of("token"), tokenInfo(Instant.now().plusSeconds(300)));
+
+        // Then
+        assertThat(disabled.get(TokenDigest.of("token"))).isNull();
+    }
+
+    private HybridJwtValidator.TokenInfo tokenInfo(Instant expiresAt) {
+        return HybridJwtValidator.TokenInfo.builder()
+                .userId("user123")
+                .username("testuser")
+                .email("test@example.com")
+                .tokenType(HybridJwtValidator.TokenType.CUSTOM)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
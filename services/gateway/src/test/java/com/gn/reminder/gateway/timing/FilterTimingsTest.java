@@ -0,0 +1,73 @@
+package com.gn.reminder.gateway.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FilterTimings Unit Tests")
+class FilterTimingsTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final List<String> recorded = new ArrayList<>();
+    private final FilterTimings timings = new FilterTimings((filter, nanos) -> recorded.add(filter + "=" + nanos / MS), 0);
+
+    @Test
+    @DisplayName("Should charge each filter until the next filter is invoked")
+    void shouldCloseSpanWhenNextFilterStarts() {
+        // When
+        FilterTimings.Span auth = timings.enter("JwtAuthenticationFilter", 1 * MS);
+        timings.enter("RateLimitingFilter", 4 * MS);
+        FilterTimings.Span upstream = timings.enter("NettyRoutingFilter", 5 * MS);
+        timings.close(upstream, 45 * MS);
+        timings.close(auth, 50 * MS);
+
+        // Then
+        assertThat(recorded).containsExactly("JwtAuthenticationFilter=3", "RateLimitingFilter=1", "NettyRoutingFilter=40");
+    }
+
+    @Test
+    @DisplayName("Should charge a filter that answers itself until its Mono terminates")
+    void shouldCloseSpanOnCompletion() {
+        // Given
+        timings.enter("JwtAuthenticationFilter", 1 * MS);
+        FilterTimings.Span rateLimit = timings.enter("RateLimitingFilter", 2 * MS);
+
+        // When
+        timings.close(rateLimit, 9 * MS);
+        timings.closeCurrent(10 * MS);
+
+        // Then
+        assertThat(recorded).containsExactly("JwtAuthenticationFilter=1", "RateLimitingFilter=7");
+    }
+
+    @Test
+    @DisplayName("Should break down auth, rate-limit and upstream time, counting an open span up to now")
+    void shouldFormatServerTiming() {
+        // Given
+        timings.enter("JwtAuthenticationFilter", 1 * MS);
+        timings.enter("RateLimitingFilter", 3 * MS);
+        timings.enter("ResponseCacheFilter", 3_500_000L);
+        timings.enter("HedgingFilter", 4 * MS);
+
+        // When
+        String header = timings.serverTiming(30 * MS);
+
+        // Then
+        assertThat(header).isEqualTo("auth;dur=2.0, ratelimit;dur=0.5, upstream;dur=26.0, total;dur=30.0");
+    }
+
+    @Test
+    @DisplayName("Should leave out metrics for filters that did not run")
+    void shouldOmitMissingMetrics() {
+        // Given
+        timings.enter("JwtAuthenticationFilter", 0);
+        timings.enter("ResponseCacheFilter", 2 * MS);
+
+        // When / Then
+        assertThat(timings.serverTiming(3 * MS)).isEqualTo("auth;dur=2.0, total;dur=3.0");
+    }
+}
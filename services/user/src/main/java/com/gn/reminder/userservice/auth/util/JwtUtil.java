@@ -1,7 +1,9 @@
 package com.gn.reminder.userservice.auth.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
@@ -22,13 +24,52 @@ public class JwtUtil {
   @Value("${jwt.expiration}")
   private Long expiration;
 
+  // Built once on first use; parser instances are immutable and thread-safe
+  private volatile SecretKey signingKey;
+
+  private volatile JwtParser parser;
+
   public Long getExpiration() {
     return expiration;
   }
 
   private SecretKey getSigningKey() {
-    byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-    return Keys.hmacShaKeyFor(keyBytes);
+    SecretKey key = signingKey;
+    if (key == null) {
+      key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+      signingKey = key;
+    }
+    return key;
+  }
+
+  private JwtParser getParser() {
+    JwtParser jwtParser = parser;
+    if (jwtParser == null) {
+      jwtParser = Jwts.parser()
+              .verifyWith(getSigningKey())
+              .build();
+      parser = jwtParser;
+    }
+    return jwtParser;
+  }
+
+  /**
+   * Verify signature and expiry with a single parse and return subject, userId, email and expiry.
+   * Throws JwtException if the token is malformed, has a bad signature, is expired or has no expiry.
+   */
+  public VerifiedJwt verify(String token) {
+    if (token == null || token.isEmpty()) {
+      throw new MalformedJwtException("Token is empty");
+    }
+    Claims claims = getParser().parseSignedClaims(token).getPayload();
+    if (claims.getExpiration() == null) {
+      throw new MalformedJwtException("Token has no expiration");
+    }
+    return new VerifiedJwt(
+            claims.getSubject(),
+            claims.get("userId", String.class),
+            claims.get("email", String.class),
+            claims.getExpiration().toInstant());
   }
 
   public String extractUsername(String token) {
@@ -53,9 +94,7 @@ public class JwtUtil {
   }
 
   public Claims extractAllClaims(String token) {
-    return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
+    return getParser()
             .parseSignedClaims(token)
             .getPayload();
   }
@@ -82,14 +121,14 @@ public class JwtUtil {
   }
 
   public Boolean validateToken(String token, String username) {
-    final String extractedUsername = extractUsername(token);
-    return (extractedUsername.equals(username) && !isTokenExpired(token));
+    return verify(token).subject().equals(username);
   }
 
   public Boolean validateToken(String token) {
     try {
-      extractAllClaims(token);
-      return !isTokenExpired(token);
+      // The parser rejects expired tokens, so one parse covers signature and expiry
+      verify(token);
+      return true;
     } catch (Exception e) {
       return false;
     }
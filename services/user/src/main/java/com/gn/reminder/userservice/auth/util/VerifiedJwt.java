@@ -0,0 +1,14 @@
+package com.gn.reminder.userservice.auth.util;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have been verified,
+ * produced from a single parse of the token
+ */
+public record VerifiedJwt(
+        String subject,
+        String userId,
+        String email,
+        Instant expiresAt) {
+}
@@ -0,0 +1,42 @@
+package com.gn.reminder.userservice.shared.config;
+
+import com.gn.reminder.userservice.shared.deadline.DeadlineAwareMongoTemplate;
+import com.gn.reminder.userservice.shared.deadline.DeadlineTimeoutSource;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.TimeoutOptions;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Bounds Mongo and Redis work by the gateway's request deadline (see RequestDeadline)
+ */
+@Configuration
+public class DeadlineConfig {
+
+  // Lettuce's own default when spring.data.redis.timeout is not set
+  private static final Duration DEFAULT_COMMAND_TIMEOUT = Duration.ofSeconds(60);
+
+  @Bean
+  public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+    return new DeadlineAwareMongoTemplate(mongoDbFactory, mongoConverter);
+  }
+
+  @Bean
+  public LettuceClientConfigurationBuilderCustomizer deadlineCommandTimeouts(RedisProperties redisProperties) {
+    Duration commandTimeout = redisProperties.getTimeout() != null ? redisProperties.getTimeout() : DEFAULT_COMMAND_TIMEOUT;
+    TimeoutOptions timeoutOptions = TimeoutOptions.builder()
+            .timeoutSource(new DeadlineTimeoutSource(commandTimeout))
+            .build();
+    // Keep the client options Spring Boot derived from spring.data.redis.*, only swap the timeouts
+    return builder -> {
+      ClientOptions current = builder.build().getClientOptions().orElseGet(ClientOptions::create);
+      builder.clientOptions(current.mutate().timeoutOptions(timeoutOptions).build());
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package com.gn.reminder.userservice.shared.deadline;
+
+import com.mongodb.client.MongoCollection;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate that bounds every operation by the current RequestDeadline.
+ *
+ * The collection is given the time left as its operation timeout, which the driver sends to the server as
+ * maxTimeMS (and also applies to connection checkout), so the server stops work nobody will read. Once the
+ * deadline has passed, operations are not sent at all. Repositories (UserRepo) go through this template.
+ */
+public class DeadlineAwareMongoTemplate extends MongoTemplate {
+
+  public DeadlineAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+    super(mongoDbFactory, mongoConverter);
+  }
+
+  @Override
+  protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+    MongoCollection<Document> prepared = super.prepareCollection(collection);
+    long remainingMillis = RequestDeadline.remainingMillis();
+    if (remainingMillis < 0) {
+      return prepared;
+    }
+    RequestDeadline.check();
+    return prepared.withTimeout(remainingMillis, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,67 @@
+package com.gn.reminder.userservice.shared.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Reads the gateway's X-Request-Timeout-Ms header and sets the RequestDeadline for the request.
+ * Runs before Spring Security; a request that arrives with no time left gets 504 without any work done.
+ * Requests without the header (or with an invalid one) run unbounded, as before.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+  private final boolean enabled;
+
+  public DeadlineFilter(@Value("${user.deadline.enabled:true}") boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+          throws ServletException, IOException {
+    String header = request.getHeader(RequestDeadline.TIMEOUT_HEADER);
+    if (!enabled || header == null) {
+      chain.doFilter(request, response);
+      return;
+    }
+
+    long budgetMillis;
+    try {
+      budgetMillis = Long.parseLong(header.trim());
+    } catch (NumberFormatException e) {
+      log.debug("Ignoring invalid {} header: {}", RequestDeadline.TIMEOUT_HEADER, header);
+      chain.doFilter(request, response);
+      return;
+    }
+
+    if (budgetMillis <= 0) {
+      log.debug("Request to {} arrived past its deadline", request.getRequestURI());
+      response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write(String.format(
+              "{\"error\": \"Request deadline exceeded\", \"status\": %d}", HttpStatus.GATEWAY_TIMEOUT.value()));
+      return;
+    }
+
+    RequestDeadline.start(budgetMillis);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      RequestDeadline.clear();
+    }
+  }
+}
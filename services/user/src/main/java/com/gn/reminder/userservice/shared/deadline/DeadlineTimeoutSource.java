@@ -0,0 +1,37 @@
+package com.gn.reminder.userservice.shared.deadline;
+
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.RedisCommand;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettuce command timeout bounded by the current RequestDeadline.
+ *
+ * Lettuce asks for the timeout when the command is written, on the calling (request) thread, so each
+ * command gets the lesser of the configured timeout and the time the request has left; commands issued
+ * after the deadline time out at once.
+ */
+public class DeadlineTimeoutSource extends TimeoutOptions.TimeoutSource {
+
+  private final long commandTimeoutMillis;
+
+  public DeadlineTimeoutSource(Duration commandTimeout) {
+    this.commandTimeoutMillis = commandTimeout.toMillis();
+  }
+
+  @Override
+  public long getTimeout(RedisCommand<?, ?, ?> command) {
+    long remainingMillis = RequestDeadline.remainingMillis();
+    if (remainingMillis < 0) {
+      return commandTimeoutMillis;
+    }
+    // 0 would mean "no timeout" to Lettuce
+    return Math.max(1, Math.min(remainingMillis, commandTimeoutMillis));
+  }
+
+  @Override
+  public TimeUnit getTimeUnit() {
+    return TimeUnit.MILLISECONDS;
+  }
+}
@@ -0,0 +1,54 @@
+package com.gn.reminder.userservice.shared.deadline;
+
+import com.gn.reminder.userservice.shared.exception.DeadlineExceededException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline of the request being served on the current thread.
+ *
+ * The gateway sends the time it is still willing to wait as X-Request-Timeout-Ms; DeadlineFilter turns it
+ * into a System.nanoTime deadline on arrival, so clock skew between hosts does not matter. Mongo queries and
+ * Redis commands issued while a deadline is set are bounded by the time left.
+ */
+public final class RequestDeadline {
+
+  public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+  private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+  private RequestDeadline() {
+  }
+
+  static void start(long budgetMillis) {
+    DEADLINE.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+  }
+
+  static void clear() {
+    DEADLINE.remove();
+  }
+
+  /**
+   * @return milliseconds left, 0 once the deadline has passed, or -1 when the request has no deadline
+   */
+  public static long remainingMillis() {
+    Long deadline = DEADLINE.get();
+    if (deadline == null) {
+      return -1;
+    }
+    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    return Math.max(remaining, 0);
+  }
+
+  public static boolean hasExpired() {
+    return remainingMillis() == 0;
+  }
+
+  /**
+   * Abandon the current request if its deadline has passed
+   */
+  public static void check() {
+    if (hasExpired()) {
+      throw new DeadlineExceededException();
+    }
+  }
+}
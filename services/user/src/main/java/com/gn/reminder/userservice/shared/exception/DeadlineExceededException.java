@@ -0,0 +1,11 @@
+package com.gn.reminder.userservice.shared.exception;
+
+/**
+ * Thrown when a request's deadline (set by the gateway) has passed, so its remaining work is abandoned
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+  public DeadlineExceededException() {
+    super("request deadline exceeded");
+  }
+}
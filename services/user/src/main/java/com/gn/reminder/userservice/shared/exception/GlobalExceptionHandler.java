@@ -1,10 +1,14 @@
 package com.gn.reminder.userservice.shared.exception;
 
+import com.gn.reminder.userservice.shared.deadline.RequestDeadline;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -47,10 +51,30 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(error);
   }
 
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<Object> deadlineExceededExceptionHandler(DeadlineExceededException ex) {
+    log.warn("abandoned request: {}", ex.getMessage());
+    return deadlineExceeded();
+  }
+
   @ExceptionHandler(RuntimeException.class)
   public ResponseEntity<Object> genericExceptionHandler(RuntimeException ex) {
+    // Mongo/Redis timeouts cut short by the request deadline surface as assorted data access exceptions
+    if (RequestDeadline.hasExpired()) {
+      log.warn("request deadline exceeded: {}", ex.getMessage());
+      return deadlineExceeded();
+    }
     log.error("Exception due to: {}", ex.getMessage());
     return ResponseEntity.badRequest().build();
   }
-}
 
+  /**
+   * Same body DeadlineFilter sends when a request arrives past its deadline, so clients see one 504 shape
+   */
+  private ResponseEntity<Object> deadlineExceeded() {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("error", "Request deadline exceeded");
+    body.put("status", HttpStatus.GATEWAY_TIMEOUT.value());
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+}
@@ -0,0 +1,48 @@
+package com.gn.reminder.userservice.user.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the id of a user whose profile changed on a Redis channel,
+ * so the gateway can drop its cached copy of GET /api/v1/user
+ */
+@Slf4j
+@Component
+public class UserProfileEventPublisher {
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean enabled;
+  private final String channel;
+
+  /**
+   * The channel comes from the config server's shared application.yml, which the gateway's
+   * gateway.response-cache.invalidation.channel also points at
+   */
+  public UserProfileEventPublisher(
+          StringRedisTemplate redisTemplate,
+          @Value("${user.events.profile-changes.enabled:true}") boolean enabled,
+          @Value("${user.events.profile-changes.channel:user:profile-changed}") String channel) {
+    this.redisTemplate = redisTemplate;
+    this.enabled = enabled;
+    this.channel = channel;
+  }
+
+  /**
+   * Best effort: a failed publish is logged and never fails the update; gateway entries still expire by TTL
+   *
+   * @param userId
+   */
+  public void profileChanged(String userId) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      redisTemplate.convertAndSend(channel, userId);
+    } catch (RuntimeException e) {
+      log.warn("Could not publish profile change for userId: {}: {}", userId, e.getMessage());
+    }
+  }
+}
@@ -3,10 +3,13 @@ package com.gn.reminder.userservice.user.service;
 import com.gn.reminder.userservice.shared.exception.UserNotFoundException;
 import com.gn.reminder.userservice.user.dto.UserProfileResponse;
 import com.gn.reminder.userservice.user.dto.UserRequest;
+import com.gn.reminder.userservice.user.event.UserProfileEventPublisher;
 import com.gn.reminder.userservice.user.repository.UserRepo;
 import com.gn.reminder.userservice.user.util.UserUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -17,6 +20,8 @@ import org.springframework.stereotype.Service;
 public class UserService {
 
   private final UserRepo repository;
+  private final UserProfileEventPublisher eventPublisher;
+  private final CacheManager cacheManager;
 
   /**
    * method to create a new user
@@ -34,16 +39,19 @@ public class UserService {
 
   /**
    * method to update an existing user
-   * Cache is evicted for the specific user on update
+   * Cache is evicted for the specific user on update, and the gateway is told to drop its cached profile.
+   * Eviction is done here, not with @CacheEvict, which only runs after the method returns: the gateway
+   * refetches as soon as it hears of the change and must not find the old profile still cached
    *
    * @param userId
    * @param request
    */
-  @CacheEvict(value = {"userProfiles", "userByEmail"}, key = "#userId")
   public void updateUser(String userId, UserRequest request) {
     var user = repository.findById(userId).orElseThrow(() -> new UserNotFoundException(
             String.format("update user:: no user found with provided id: %s", request.id())));
     repository.save(UserUtil.updateUserProfile(request, user));
+    evict(userId, "userProfiles", "userByEmail");
+    eventPublisher.profileChanged(userId);
   }
 
   /**
@@ -76,5 +84,13 @@ public class UserService {
             () -> new UserNotFoundException(String.format("no user found with provided id: %s", userId)));
     return UserProfileResponse.fromUser(user);
   }
-}
 
+  private void evict(String key, String... cacheNames) {
+    for (String name : cacheNames) {
+      Cache cache = cacheManager.getCache(name);
+      if (cache != null) {
+        cache.evictIfPresent(key);
+      }
+    }
+  }
+}
@@ -226,5 +226,47 @@ class JwtUtilTest {
         // Then
         assertThat(isValid).isFalse();
     }
-}
 
+    @Test
+    @DisplayName("Should verify token and expose all claims from a single parse")
+    void testVerify() {
+        // Given
+        String token = jwtUtil.generateToken("testuser", "test@example.com", "user123");
+
+        // When
+        VerifiedJwt verifiedJwt = jwtUtil.verify(token);
+
+        // Then
+        assertThat(verifiedJwt.subject()).isEqualTo("testuser");
+        assertThat(verifiedJwt.userId()).isEqualTo("user123");
+        assertThat(verifiedJwt.email()).isEqualTo("test@example.com");
+        assertThat(verifiedJwt.expiresAt()).isInTheFuture();
+    }
+
+    @Test
+    @DisplayName("Should reject expired token when verifying")
+    void testVerify_ExpiredToken() {
+        // Given
+        JwtUtil shortLivedJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(shortLivedJwtUtil, "secret",
+                "TestSecretKeyForJWTTokenGenerationMustBeAtLeast256BitsLongForHS256AlgorithmTestOnly");
+        ReflectionTestUtils.setField(shortLivedJwtUtil, "expiration", -1000L);
+
+        String expiredToken = shortLivedJwtUtil.generateToken("testuser", "test@example.com", "user123");
+
+        // When & Then
+        assertThatThrownBy(() -> jwtUtil.verify(expiredToken))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should validate token against expected username")
+    void testValidateToken_WithUsername() {
+        // Given
+        String token = jwtUtil.generateToken("testuser", "test@example.com", "user123");
+
+        // Then
+        assertThat(jwtUtil.validateToken(token, "testuser")).isTrue();
+        assertThat(jwtUtil.validateToken(token, "otheruser")).isFalse();
+    }
+}
@@ -0,0 +1,104 @@
+package com.gn.reminder.userservice.shared.deadline;
+
+import com.gn.reminder.userservice.shared.exception.DeadlineExceededException;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DeadlineFilter Unit Tests")
+class DeadlineFilterTest {
+
+    private final DeadlineFilter filter = new DeadlineFilter(true);
+    private final AtomicLong remainingInChain = new AtomicLong(Long.MIN_VALUE);
+    private final FilterChain chain = (request, response) -> remainingInChain.set(RequestDeadline.remainingMillis());
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("Should set the deadline from the header for the duration of the request")
+    void shouldSetDeadlineFromHeader() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("5000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(remainingInChain.get()).isBetween(4000L, 5000L);
+        assertThat(RequestDeadline.remainingMillis()).isEqualTo(-1);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should reject a request that arrives with no time left without running it")
+    void shouldRejectExpiredRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(504);
+        assertThat(remainingInChain.get()).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    @DisplayName("Should run unbounded without a valid header")
+    void shouldIgnoreMissingOrInvalidHeader() throws Exception {
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/user"), new MockHttpServletResponse(), chain);
+        long withoutHeader = remainingInChain.get();
+        filter.doFilter(request("soon"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(withoutHeader).isEqualTo(-1);
+        assertThat(remainingInChain.get()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should abandon work once the deadline has passed")
+    void shouldThrowOncePastDeadline() {
+        // Given
+        RequestDeadline.start(0);
+
+        // When / Then
+        assertThat(RequestDeadline.hasExpired()).isTrue();
+        assertThatThrownBy(RequestDeadline::check).isInstanceOf(DeadlineExceededException.class);
+    }
+
+    @Test
+    @DisplayName("Should bound Redis command timeouts by the time left")
+    void shouldBoundRedisTimeouts() {
+        // Given
+        DeadlineTimeoutSource source = new DeadlineTimeoutSource(Duration.ofSeconds(2));
+
+        // When / Then
+        assertThat(source.getTimeout(null)).isEqualTo(2000);
+        RequestDeadline.start(500);
+        assertThat(source.getTimeout(null)).isBetween(1L, 500L);
+        RequestDeadline.start(10_000);
+        assertThat(source.getTimeout(null)).isEqualTo(2000);
+        RequestDeadline.start(0);
+        assertThat(source.getTimeout(null)).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request(String timeoutHeader) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user");
+        request.addHeader(RequestDeadline.TIMEOUT_HEADER, timeoutHeader);
+        return request;
+    }
+}
@@ -3,14 +3,18 @@ package com.gn.reminder.userservice.user.service;
 import com.gn.reminder.userservice.shared.exception.UserNotFoundException;
 import com.gn.reminder.userservice.user.domain.User;
 import com.gn.reminder.userservice.user.dto.*;
+import com.gn.reminder.userservice.user.event.UserProfileEventPublisher;
 import com.gn.reminder.userservice.user.repository.UserRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
 import java.time.Instant;
 import java.util.Optional;
@@ -26,6 +30,15 @@ class UserServiceTest {
     @Mock
     private UserRepo userRepo;
 
+    @Mock
+    private UserProfileEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private UserService userService;
 
@@ -151,13 +164,19 @@ class UserServiceTest {
         // Given
         when(userRepo.findById("userId")).thenReturn(Optional.of(mockUser));
         when(userRepo.save(any(User.class))).thenReturn(mockUser);
+        when(cacheManager.getCache(any())).thenReturn(cache);
 
         // When
         userService.updateUser("userId", userRequest);
 
         // Then
         verify(userRepo).findById("userId");
-        verify(userRepo).save(any(User.class));
+        InOrder inOrder = inOrder(userRepo, cache, eventPublisher);
+        inOrder.verify(userRepo).save(any(User.class));
+        inOrder.verify(cache, times(2)).evictIfPresent("userId");
+        inOrder.verify(eventPublisher).profileChanged("userId");
+        verify(cacheManager).getCache("userProfiles");
+        verify(cacheManager).getCache("userByEmail");
     }
 
     @Test
@@ -183,6 +202,7 @@ class UserServiceTest {
 
         verify(userRepo).findById("nonexistent");
         verify(userRepo, never()).save(any(User.class));
+        verify(eventPublisher, never()).profileChanged(any());
     }
 
     @Test